@@ -0,0 +1,96 @@
+package com.network.gateway.mux;
+
+import ch.qos.logback.classic.Logger;
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.dto.TransactionStatus;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.FrameView;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.observability.GatewayMetrics;
+import com.network.gateway.session.UpstreamSession;
+import com.network.gateway.session.UpstreamSessionPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * submit → 응답 완료 한 번의 비용. 업스트림은 EmbeddedChannel이고 같은 스레드에서 바로 응답한다.
+ * gc 프로파일러의 gc.alloc.rate.norm(B/op)으로 기본 모드와 저할당 모드를 비교한다.
+ * 예산 검사는 MuxEngineAllocationTest가 한다.
+ *
+ * <pre>./gradlew :adapter-gateway:jmh</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MuxEngineAllocationBenchmark {
+
+    private static final AuthorizeRequest REQUEST =
+            new AuthorizeRequest("M001", 15_000L, "KRW", null, "client-1", "payload");
+
+    @Param({"false", "true"})
+    private boolean lowAllocation;
+
+    private EmbeddedChannel channel;
+    private AdmissionControl admissionControl;
+    private MuxEngine muxEngine;
+    private ByteBuf responseBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(MuxEngine.class)).setLevel(ch.qos.logback.classic.Level.INFO);
+
+        GatewayProperties properties = new GatewayProperties();
+        properties.getUpstream().setMaxSessions(1);
+        properties.getUpstream().setCorrelationIdMode(CorrelationIdMode.BINARY);
+        properties.getUpstream().setBodyEncoding(BodyEncoding.BINARY);
+        properties.getUpstream().setLowAllocation(lowAllocation);
+
+        UpstreamSession session = new UpstreamSession("session-0", CorrelationIdMode.BINARY);
+        channel = new EmbeddedChannel();
+        session.setChannel(channel);
+        UpstreamSessionPool pool = new UpstreamSessionPool(properties, null, null) {
+            @Override
+            public UpstreamSession selectSession() {
+                return session;
+            }
+        };
+
+        GatewayMetrics metrics = new GatewayMetrics(new SimpleMeterRegistry());
+        admissionControl = new AdmissionControl(properties, pool, metrics);
+        muxEngine = new MuxEngine(properties, pool, metrics, admissionControl);
+        muxEngine.init();
+
+        responseBody = Unpooled.buffer();
+        BodyEncoding.BINARY.writeResponse(responseBody, TransactionStatus.APPROVED, "OK");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        muxEngine.shutdown();
+        channel.finishAndReleaseAll();
+        responseBody.release();
+    }
+
+    @Benchmark
+    public AuthorizeResponse submitAndComplete() {
+        var future = muxEngine.submit(REQUEST, MessageType.AUTH_REQ, null, admissionControl.tryReserve());
+
+        ByteBuf frame = channel.readOutbound();
+        frame.skipBytes(FrameCodec.LENGTH_FIELD_LENGTH);
+        long correlationId = CorrelationIdMode.BINARY.read(frame);
+        frame.release();
+        muxEngine.completeRequest(new FrameView(correlationId, MessageType.AUTH_RES, responseBody));
+        return future.getNow(null);
+    }
+}
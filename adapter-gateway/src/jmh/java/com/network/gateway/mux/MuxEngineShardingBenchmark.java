@@ -0,0 +1,175 @@
+package com.network.gateway.mux;
+
+import ch.qos.logback.classic.Logger;
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.dto.TransactionStatus;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.netty.FrameDecoder;
+import com.network.gateway.netty.ResponseHandler;
+import com.network.gateway.observability.GatewayMetrics;
+import com.network.gateway.session.UpstreamSession;
+import com.network.gateway.session.UpstreamSessionPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.concurrent.EventExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이벤트 루프(= 세션) 수를 늘릴 때 submit → 응답 완료 처리량이 얼마나 늘어나는지 전역 모드와 샤딩 모드를 비교한다.
+ * 업스트림은 LocalChannel 서버가 받은 id로 바로 응답하므로 네트워크 없이 mux 경로의 스레드 간 비용만 남는다.
+ * 루프 수 대비 처리량이 선형에 가까울수록 좋다 (코어 수가 루프 수 + 호출 스레드 수보다 적으면 그 위에서는 포화된다).
+ *
+ * <pre>./gradlew :adapter-gateway:jmh</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+public class MuxEngineShardingBenchmark {
+
+    private static final AuthorizeRequest REQUEST =
+            new AuthorizeRequest("M001", 15_000L, "KRW", null, "client-1", "payload");
+
+    @Param({"1", "2", "4"})
+    private int loops;
+
+    @Param({"false", "true"})
+    private boolean sharded;
+
+    private EventLoopGroup workerGroup;
+    private EventLoopGroup upstreamGroup;
+    private final List<Channel> channels = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private AdmissionControl admissionControl;
+    private MuxEngine muxEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        ((Logger) LoggerFactory.getLogger(MuxEngine.class)).setLevel(ch.qos.logback.classic.Level.INFO);
+        ((Logger) LoggerFactory.getLogger(ResponseHandler.class)).setLevel(ch.qos.logback.classic.Level.INFO);
+
+        GatewayProperties properties = new GatewayProperties();
+        properties.getUpstream().setMaxSessions(loops);
+        properties.getUpstream().setMaxInflightPerSession(1024);
+        properties.getUpstream().setCorrelationIdMode(CorrelationIdMode.BINARY);
+        properties.getUpstream().setBodyEncoding(BodyEncoding.BINARY);
+        properties.getUpstream().setLowAllocation(true);
+        properties.getUpstream().getSharding().setEnabled(sharded);
+
+        workerGroup = new DefaultEventLoopGroup(loops);
+        upstreamGroup = new DefaultEventLoopGroup(loops);
+        List<UpstreamSession> sessions = new ArrayList<>();
+        UpstreamSessionPool pool = new UpstreamSessionPool(properties, null, null) {
+            @Override
+            public EventLoopGroup getWorkerGroup() {
+                return workerGroup;
+            }
+
+            @Override
+            public UpstreamSession selectSession() {
+                return sessions.get(Math.floorMod(next.getAndIncrement(), sessions.size()));
+            }
+
+            @Override
+            public boolean hasActiveSession() {
+                return true;
+            }
+        };
+
+        GatewayMetrics metrics = new GatewayMetrics(new SimpleMeterRegistry());
+        admissionControl = new AdmissionControl(properties, pool, metrics);
+        muxEngine = new MuxEngine(properties, pool, metrics, admissionControl);
+        muxEngine.init();
+
+        LocalAddress address = new LocalAddress("mux-sharding-bench-" + System.nanoTime());
+        channels.add(new ServerBootstrap()
+                .group(upstreamGroup)
+                .channel(LocalServerChannel.class)
+                .childHandler(new EchoUpstream())
+                .bind(address).sync().channel());
+
+        // 세션 i를 루프 i에 붙인다 (샤딩 모드에서는 shard i)
+        int i = 0;
+        for (EventExecutor loop : workerGroup) {
+            Channel channel = new Bootstrap()
+                    .group((EventLoop) loop)
+                    .channel(LocalChannel.class)
+                    .handler(new ChannelInitializer<LocalChannel>() {
+                        @Override
+                        protected void initChannel(LocalChannel ch) {
+                            ch.pipeline()
+                                    .addLast(new FrameDecoder())
+                                    .addLast(new ResponseHandler(muxEngine, CorrelationIdMode.BINARY));
+                        }
+                    })
+                    .connect(address).sync().channel();
+            UpstreamSession session = new UpstreamSession("session-" + i++, CorrelationIdMode.BINARY);
+            session.setChannel(channel);
+            sessions.add(session);
+            channels.add(channel);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        muxEngine.shutdown();
+        channels.forEach(channel -> channel.close().syncUninterruptibly());
+        workerGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).syncUninterruptibly();
+        upstreamGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Benchmark
+    public AuthorizeResponse submitAndAwait() {
+        return muxEngine.submit(REQUEST, MessageType.AUTH_REQ, null, admissionControl.tryReserve()).join();
+    }
+
+    // 받은 프레임의 correlationId로 바로 APPROVED 응답을 보낸다. 상태가 없어 모든 child 채널이 공유한다
+    @ChannelHandler.Sharable
+    private static final class EchoUpstream extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ByteBuf frame = (ByteBuf) msg;
+            long correlationId;
+            try {
+                frame.skipBytes(FrameCodec.LENGTH_FIELD_LENGTH);
+                correlationId = CorrelationIdMode.BINARY.read(frame);
+            } finally {
+                frame.release();
+            }
+            ByteBuf body = ctx.alloc().heapBuffer();
+            try {
+                BodyEncoding.BINARY.writeResponse(body, TransactionStatus.APPROVED, "OK");
+                ctx.writeAndFlush(FrameCodec.encode(ctx.alloc(), CorrelationIdMode.BINARY, correlationId,
+                        MessageType.AUTH_RES, body));
+            } finally {
+                body.release();
+            }
+        }
+    }
+}
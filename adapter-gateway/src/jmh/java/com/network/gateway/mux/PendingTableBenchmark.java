@@ -0,0 +1,59 @@
+package com.network.gateway.mux;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PendingTable vs 기존 ConcurrentHashMap&lt;Long, PendingRequest&gt; 비교.
+ * inflight개가 항상 pending인 정상 상태를 가정하고, 한 op = 새 id 등록 + inflight 이전 id 완료.
+ *
+ * <pre>./gradlew :adapter-gateway:jmh</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class PendingTableBenchmark {
+
+    @Param({"10000", "100000"})
+    private int inflight;
+
+    private PendingTable table;
+    private ConcurrentMap<Long, PendingRequest> map;
+    private final AtomicLong tableSeq = new AtomicLong();
+    private final AtomicLong mapSeq = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        table = new PendingTable(inflight);
+        map = new ConcurrentHashMap<>();
+        for (long id = 0; id < inflight; id++) {
+            table.put(id, newPending(id));
+            map.put(id, newPending(id));
+        }
+        tableSeq.set(inflight);
+        mapSeq.set(inflight);
+    }
+
+    @Benchmark
+    public PendingRequest pendingTable() {
+        long id = tableSeq.getAndIncrement();
+        table.put(id, newPending(id));
+        return table.remove(id - inflight);
+    }
+
+    @Benchmark
+    public PendingRequest concurrentHashMap() {
+        long id = mapSeq.getAndIncrement();
+        map.put(id, newPending(id));
+        return map.remove(id - inflight);
+    }
+
+    private static PendingRequest newPending(long id) {
+        return new PendingRequest(id, "tx", 0L, 0L, null, null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.network.gateway.session;
+
+import com.network.common.protocol.CorrelationIdMode;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 세션 선택 비용 비교: 기존 stream + Comparator 최소값 vs 배열 기반 전략들.
+ * 세션은 EmbeddedChannel로 연결 상태를 만들고 inflight는 한도 아래에서 무작위로 채운다.
+ * 선택만 측정하므로 inflight는 바뀌지 않는다.
+ *
+ * <pre>./gradlew :adapter-gateway:jmh</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class SessionSelectionBenchmark {
+
+    private static final int MAX_INFLIGHT = 2000;
+
+    @Param({"2", "16", "64"})
+    private int sessionCount;
+
+    private UpstreamSession[] sessions;
+    private List<UpstreamSession> sessionList;
+    private final SessionSelector leastLoaded = new LeastLoadedSelector();
+    private final SessionSelector powerOfTwo = new PowerOfTwoChoicesSelector();
+    private final SessionSelector roundRobin = new RoundRobinSelector();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessions = new UpstreamSession[sessionCount];
+        for (int i = 0; i < sessionCount; i++) {
+            UpstreamSession session = new UpstreamSession("session-" + i, CorrelationIdMode.BINARY);
+            session.setChannel(new EmbeddedChannel());
+            int inflight = ThreadLocalRandom.current().nextInt(MAX_INFLIGHT);
+            for (int j = 0; j < inflight; j++) {
+                session.incrementInflight();
+            }
+            sessions[i] = session;
+        }
+        sessionList = Arrays.asList(sessions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (UpstreamSession session : sessions) {
+            session.getChannel().close();
+        }
+    }
+
+    @Benchmark
+    public UpstreamSession streamMin() {
+        return sessionList.stream()
+                .filter(UpstreamSession::isActive)
+                .filter(UpstreamSession::isWritable)
+                .min(Comparator.comparingInt(UpstreamSession::getInflightCount))
+                .orElse(null);
+    }
+
+    @Benchmark
+    public UpstreamSession leastLoaded() {
+        return leastLoaded.select(sessions, MAX_INFLIGHT);
+    }
+
+    @Benchmark
+    public UpstreamSession powerOfTwoChoices() {
+        return powerOfTwo.select(sessions, MAX_INFLIGHT);
+    }
+
+    @Benchmark
+    public UpstreamSession roundRobin() {
+        return roundRobin.select(sessions, MAX_INFLIGHT);
+    }
+}
@@ -1,12 +1,16 @@
 package com.network.gateway.admission;
 
 import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.observability.GatewayMetrics;
 import com.network.gateway.session.UpstreamSession;
 import com.network.gateway.session.UpstreamSessionPool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
@@ -16,31 +20,107 @@ public class AdmissionControl {
 
     private final GatewayProperties properties;
     private final UpstreamSessionPool sessionPool;
+    private final GatewayMetrics metrics;
     private final AtomicInteger queueDepth = new AtomicInteger(0);
 
     /**
-     * 요청 수용 가능 여부를 판단한다.
-     * @return 수용 가능하면 true, 거절(BUSY)이면 false
+     * 요청 하나를 수용하고 토큰을 발급한다.
+     * 확인과 선점을 세션 inflight 카운터의 CAS 한 번으로 처리하므로 동시 요청이 몰려도 한도를 넘지 않는다.
+     * 대기 중인 요청이 있거나 모든 세션이 한도면 대기열 자리를 선점한다.
+     * @return 수용 토큰, 거절(BUSY)이면 null
      */
-    public boolean tryAdmit() {
+    public Reservation tryReserve() {
+        return reserve(gatewayDeadline());
+    }
+
+    /**
+     * 호출자 deadline을 함께 받는다. 토큰의 deadline은 호출자 deadline과 게이트웨이 요청 타임아웃 중 이른 쪽이다.
+     * @param clientDeadlineNanos 호출자가 응답을 기다리는 마지막 시각 (System.nanoTime() 기준)
+     */
+    public Reservation tryReserve(long clientDeadlineNanos) {
+        return reserve(earlier(clientDeadlineNanos, gatewayDeadline()));
+    }
+
+    private Reservation reserve(long deadline) {
         GatewayProperties.Upstream upstream = properties.getUpstream();
 
-        // 세션별 inflight 합계 체크
+        // 쓰기 가능한 세션이 없으면 거절: 연결이 없거나, 업스트림이 느리게 읽어 아웃바운드 버퍼가 high water mark를 넘음
         UpstreamSession session = sessionPool.selectSession();
         if (session == null) {
-            log.warn("No active session available, rejecting request");
-            return false;
+            if (sessionPool.hasActiveSession()) {
+                log.warn("All sessions over outbound buffer high water mark, rejecting request");
+            } else {
+                log.warn("No active session available, rejecting request");
+            }
+            return null;
         }
 
-        if (session.getInflightCount() >= upstream.getMaxInflightPerSession()) {
-            // 큐 대기 가능한지 체크
-            if (queueDepth.get() >= upstream.getMaxQueueDepth()) {
+        // 앞서 기다리는 요청이 있으면 새 요청이 slot을 가로채지 않도록 바로 대기열로 보낸다 (FIFO)
+        if (queueDepth.get() == 0) {
+            // 선택과 CAS 사이에 다른 요청이 마지막 slot을 가져간 경우에만 다시 고른다
+            for (int attempt = 0; attempt < upstream.getMaxSessions() && session != null; attempt++) {
+                if (session.tryReserve(session.getInflightLimit(upstream.getMaxInflightPerSession()))) {
+                    return new Reservation(session, this, deadline);
+                }
+                session = sessionPool.selectSession();
+            }
+        }
+
+        // 큐 대기 가능한지 체크
+        int depth;
+        do {
+            depth = queueDepth.get();
+            if (depth >= upstream.getMaxQueueDepth()) {
                 log.warn("Queue depth limit reached ({}), rejecting request", upstream.getMaxQueueDepth());
-                return false;
+                return null;
             }
+        } while (!queueDepth.compareAndSet(depth, depth + 1));
+        return new Reservation(null, this, deadline);
+    }
+
+    /**
+     * 배치를 한 단위로 수용한다. 전부 예약되면 토큰 목록을, 하나라도 실패하면 이미 잡은 토큰을 반환하고 null을 돌려준다.
+     * 일부만 받지는 않는다.
+     */
+    public List<Reservation> tryReserveBatch(int size) {
+        return reserveBatch(size, gatewayDeadline());
+    }
+
+    public List<Reservation> tryReserveBatch(int size, long clientDeadlineNanos) {
+        return reserveBatch(size, earlier(clientDeadlineNanos, gatewayDeadline()));
+    }
+
+    private List<Reservation> reserveBatch(int size, long deadline) {
+        List<Reservation> reservations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Reservation reservation = reserve(deadline);
+            if (reservation == null) {
+                log.warn("Batch of {} exceeds inflight/queue capacity after {} items, rejecting", size, i);
+                reservations.forEach(Reservation::release);
+                return null;
+            }
+            reservations.add(reservation);
         }
+        return reservations;
+    }
+
+    private long gatewayDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getUpstream().getRequestTimeoutMs());
+    }
 
-        return true;
+    // nanoTime은 overflow 가능하므로 차이로 비교한다
+    private static long earlier(long a, long b) {
+        return a - b < 0 ? a : b;
+    }
+
+    // 소비되지 않은 토큰의 slot(세션이 null이면 대기열 자리)을 돌려주고 게이지도 맞춘다
+    void returnUnconsumed(UpstreamSession session) {
+        if (session != null) {
+            session.decrementInflight();
+            metrics.setInflight(session.getSessionId(), session.getInflightCount());
+        } else {
+            metrics.setQueueDepth(decrementQueue());
+        }
     }
 
     public int incrementQueue() {
@@ -0,0 +1,63 @@
+package com.network.gateway.admission;
+
+import com.network.gateway.session.UpstreamSession;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * admission이 발급하는 수용 토큰.
+ * 특정 세션의 inflight slot 하나(세션 카운터 CAS로 선점) 또는 대기열 자리 하나를 나타낸다.
+ *
+ * <p>MuxEngine이 {@link #consume()}로 넘겨받으면 이후 slot 반환은 완료/타임아웃/실패 경로가 맡는다.
+ * 제출하지 못하고 버리는 토큰은 {@link #release()}로 반환해야 한다.
+ *
+ * <p>토큰은 발급 시점에 정해진 deadline을 가진다. 대기열과 업스트림 타임아웃은 이 시각을 넘기지 않는다.
+ */
+public final class Reservation {
+
+    private final UpstreamSession session;
+    private final AdmissionControl admissionControl;
+    private final long deadlineNanos;
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    Reservation(UpstreamSession session, AdmissionControl admissionControl, long deadlineNanos) {
+        this.session = session;
+        this.admissionControl = admissionControl;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * slot을 선점한 세션. 대기열 토큰이면 null.
+     */
+    public UpstreamSession getSession() {
+        return session;
+    }
+
+    /**
+     * 호출자 deadline과 게이트웨이 요청 타임아웃 중 이른 쪽 (System.nanoTime() 기준).
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public boolean isQueued() {
+        return session == null;
+    }
+
+    /**
+     * 토큰 소유권을 가져간다. 한 번만 성공한다.
+     */
+    public boolean consume() {
+        return settled.compareAndSet(false, true);
+    }
+
+    /**
+     * 소비되지 않은 토큰의 slot/대기열 자리를 반환한다. 이미 소비/반환된 경우 아무 일도 하지 않는다.
+     */
+    public void release() {
+        if (!settled.compareAndSet(false, true)) {
+            return;
+        }
+        admissionControl.returnUnconsumed(session);
+    }
+}
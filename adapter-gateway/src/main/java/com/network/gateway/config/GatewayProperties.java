@@ -1,5 +1,10 @@
 package com.network.gateway.config;
 
+import com.network.common.netty.AllocatorOptions;
+import com.network.common.netty.NettyTransport;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.gateway.session.SessionSelection;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -11,18 +16,103 @@ public class GatewayProperties {
 
     private Upstream upstream = new Upstream();
     private Idempotency idempotency = new Idempotency();
+    private Ingress ingress = new Ingress();
+    private VirtualThreads virtualThreads = new VirtualThreads();
+    private Transport transport = new Transport();
+    private Allocator allocator = new Allocator();
 
     @Getter
     @Setter
     public static class Upstream {
         private String host = "localhost";
         private int port = 9090;
+        private int minSessions = 2;
         private int maxSessions = 2;
         private int maxInflightPerSession = 2000;
         private int maxQueueDepth = 20000;
         private int requestTimeoutMs = 2000;
         private int queueWaitMaxMs = 300;
+        private int timeoutTickMs = 10;
+        private int timeoutWheelSize = 512;
+        private CorrelationIdMode correlationIdMode = CorrelationIdMode.ASCII;
+        // 업스트림으로 보내는 요청 바디 형식. 응답은 바디 첫 바이트로 형식을 구분해 읽는다.
+        // 기본은 기존 '|' 구분 TEXT. BINARY는 업스트림이 BINARY v1을 읽을 수 있을 때만 켠다 (card-sim은 요청 형식으로 응답)
+        private BodyEncoding bodyEncoding = BodyEncoding.TEXT;
+        // 제출 경로에서 MDC를 쓰지 않고 txId를 correlationId에서 만든다. 승인 완료 로그는 DEBUG (이벤트 루프 요청당 할당 감소)
+        private boolean lowAllocation = false;
+        private int nodeId = 0;
+        private SessionSelection sessionSelection = SessionSelection.POWER_OF_TWO_CHOICES;
+        private double latencyEwmaAlpha = 0.2;
+        // 세션 지연 분위수(p99 게이지, 지연 기반 선택)는 직전 구간 + 현재 구간 샘플만 본다
+        private long latencyWindowMs = 10000;
         private Reconnect reconnect = new Reconnect();
+        private WriteCoalescing writeCoalescing = new WriteCoalescing();
+        private WriteBuffer writeBuffer = new WriteBuffer();
+        private Scaling scaling = new Scaling();
+        private AdaptiveLimit adaptiveLimit = new AdaptiveLimit();
+        private Hedge hedge = new Hedge();
+        // 업스트림 세션 이벤트 루프 수 (Netty HTTP ingress의 child 그룹으로도 쓰인다)
+        private int ioThreads = 2;
+        private Sharding sharding = new Sharding();
+    }
+
+    @Getter
+    @Setter
+    public static class Sharding {
+        // 이벤트 루프마다 pending 테이블/타이머/correlationId 구간을 따로 두고, 세션을 소유한 루프에서만 전송/완료한다
+        private boolean enabled = false;
+        // 호출 스레드가 워커 루프(Netty HTTP ingress)면 그 루프의 세션을 먼저 고른다
+        private boolean loopAffinity = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Hedge {
+        // INQUIRY_REQ만 대상 (멱등)
+        private boolean enabled = false;
+        private double percentile = 0.95;
+        private long minDelayMs = 10;
+        private long windowMs = 10000;
+        private double budgetPercent = 10;
+        private int budgetBurst = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class AdaptiveLimit {
+        // 켜면 세션 한도가 initialLimit에서 시작해 maxInflightPerSession 아래에서 움직인다
+        private boolean enabled = false;
+        private int initialLimit = 200;
+        private int minLimit = 20;
+        private double backoffRatio = 0.9;
+        private long latencyThresholdMs = 300;
+    }
+
+    @Getter
+    @Setter
+    public static class Scaling {
+        // 켜도 max-sessions가 min-sessions보다 클 때만 동작한다
+        private boolean enabled = false;
+        private long intervalMs = 1000;
+        private double scaleUpUtilization = 0.75;
+        private double scaleDownUtilization = 0.25;
+        private int sustainedIntervals = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBuffer {
+        private int lowWaterMark = 32 * 1024;
+        private int highWaterMark = 64 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class WriteCoalescing {
+        private boolean enabled = false;
+        private int maxFrames = 64;
+        private int maxBytes = 65536;
+        private long maxDelayMicros = 0;
     }
 
     @Getter
@@ -38,4 +128,82 @@ public class GatewayProperties {
     public static class Idempotency {
         private int ttlSeconds = 300;
     }
+
+    @Getter
+    @Setter
+    public static class Ingress {
+        private long responseTimeoutMs = 3000;
+        private long idempotentWaitMs = 2000;
+        private int maxBatchSize = 1000;
+        private NettyHttp netty = new NettyHttp();
+        private FrameIngress frame = new FrameIngress();
+
+        /**
+         * Netty HTTP aggregator 한도. 최대 크기 배치가 aggregator에서 413으로 잘리지 않도록
+         * max-batch-size × max-batch-item-bytes보다 작게 잡지 않는다.
+         */
+        public int httpMaxContentLength() {
+            long batchBytes = (long) maxBatchSize * netty.getMaxBatchItemBytes();
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(netty.getMaxContentLength(), batchBytes));
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class NettyHttp {
+        private boolean enabled = false;
+        private int port = 8083;
+        // 단건 요청 본문 한도. 배치 본문 한도는 Ingress#httpMaxContentLength
+        private int maxContentLength = 65536;
+        // 배치 항목 하나의 JSON 크기 상한 (필드 + 짧은 payload가 약 120B)
+        private int maxBatchItemBytes = 256;
+    }
+
+    @Getter
+    @Setter
+    public static class FrameIngress {
+        private boolean enabled = false;
+        private int port = 9091;
+        private CorrelationIdMode correlationIdMode = CorrelationIdMode.BINARY;
+    }
+
+    @Getter
+    @Setter
+    public static class VirtualThreads {
+        private long pinnedThresholdMs = 20;
+    }
+
+    // 업스트림 세션과 ingress 서버가 함께 쓰는 transport. 스레드 수는 upstream.io-threads
+    @Getter
+    @Setter
+    public static class Transport {
+        // native를 쓸 수 없으면 IO_URING → EPOLL → NIO 순으로 대체
+        private NettyTransport type = NettyTransport.NIO;
+        // 이하 EPOLL에서만 적용
+        private boolean tcpQuickAck = false;
+        private int busyPollMicros = 0;
+        private boolean edgeTriggered = true;
+
+        public NettyTransport.NativeOptions nativeOptions() {
+            return new NettyTransport.NativeOptions(tcpQuickAck, busyPollMicros, edgeTriggered);
+        }
+    }
+
+    // 업스트림 세션과 ingress 서버 채널의 ByteBuf allocator. -1은 Netty 기본값
+    @Getter
+    @Setter
+    public static class Allocator {
+        private boolean pooled = true;
+        private boolean preferDirect = true;
+        private int heapArenas = AllocatorOptions.NETTY_DEFAULT;
+        private int directArenas = AllocatorOptions.NETTY_DEFAULT;
+        private int smallCacheSize = AllocatorOptions.NETTY_DEFAULT;
+        private int normalCacheSize = AllocatorOptions.NETTY_DEFAULT;
+        private boolean useCacheForAllThreads = false;
+
+        public AllocatorOptions options() {
+            return new AllocatorOptions(pooled, preferDirect, heapArenas, directArenas,
+                    smallCacheSize, normalCacheSize, useCacheForAllThreads);
+        }
+    }
 }
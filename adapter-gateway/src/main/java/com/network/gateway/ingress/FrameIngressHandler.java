@@ -0,0 +1,129 @@
+package com.network.gateway.ingress;
+
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.dto.TransactionStatus;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.FrameView;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.admission.Reservation;
+import com.network.gateway.mux.FrameRelay;
+import com.network.gateway.mux.MuxEngine;
+import com.network.gateway.observability.GatewayMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Frame ingress 핸들러. 클라이언트 프레임의 correlationId를 기억해 두고 바디를 그대로 MuxEngine에 중계한다.
+ * 업스트림 응답은 도착 순서대로(요청 순서와 무관하게) 클라이언트의 correlationId로 되돌려 쓴다.
+ * 실패 응답 바디는 업스트림 응답과 같은 형식이며, 클라이언트 요청 바디와 같은 인코딩(TEXT/BINARY)으로 쓴다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FrameIngressHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+    private final MuxEngine muxEngine;
+    private final AdmissionControl admissionControl;
+    private final GatewayMetrics metrics;
+    private final CorrelationIdMode correlationIdMode;
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+        // msg는 SimpleChannelInboundHandler가 해제하고, 뷰(retained slice)는 여기서 해제한다.
+        // 바디는 전송 시 업스트림 프레임으로 복사되고, 대기열에 들어가면 MuxEngine이 retain 하므로 relay 반환 직후 해제해도 된다.
+        FrameView frame = null;
+        Reservation reservation = null;
+        try {
+            frame = FrameCodec.decodeRetained(msg, correlationIdMode);
+            MessageType responseType = responseTypeOf(frame.messageType());
+            if (responseType == null) {
+                log.warn("Unsupported ingress message type: {}", frame.messageType());
+                return;
+            }
+
+            ClientRelay relay = new ClientRelay(ctx.channel(), frame.correlationId(), responseType,
+                    BodyEncoding.of(frame.body()));
+            reservation = admissionControl.tryReserve();
+            if (reservation == null) {
+                metrics.incrementBusyReject();
+                relay.onFailure(new AuthorizeResponse(null, TransactionStatus.BUSY, "CAPACITY_EXCEEDED", 0, null));
+                return;
+            }
+            muxEngine.relay(frame.messageType(), frame.body(), relay, reservation);
+        } catch (Exception e) {
+            log.error("Failed to decode ingress frame", e);
+            // relay가 토큰을 소비하기 전에 실패했으면 slot을 돌려준다 (이미 소비됐으면 아무 일도 없다)
+            if (reservation != null) {
+                reservation.release();
+            }
+        } finally {
+            if (frame != null) {
+                frame.release();
+            }
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.error("Ingress channel exception: {}", cause.getMessage(), cause);
+        ctx.close();
+    }
+
+    private static MessageType responseTypeOf(MessageType requestType) {
+        return switch (requestType) {
+            case AUTH_REQ -> MessageType.AUTH_RES;
+            case CANCEL_REQ -> MessageType.CANCEL_RES;
+            case INQUIRY_REQ -> MessageType.INQUIRY_RES;
+            default -> null;
+        };
+    }
+
+    /**
+     * 요청 하나의 응답을 클라이언트 연결로 되돌려 쓴다. 업스트림 이벤트 루프/타이머 스레드에서 호출된다.
+     */
+    private final class ClientRelay implements FrameRelay {
+
+        private final Channel channel;
+        private final long clientCorrelationId;
+        private final MessageType responseType;
+        private final BodyEncoding encoding;
+
+        private ClientRelay(Channel channel, long clientCorrelationId, MessageType responseType,
+                            BodyEncoding encoding) {
+            this.channel = channel;
+            this.clientCorrelationId = clientCorrelationId;
+            this.responseType = responseType;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void onResponse(MessageType messageType, ByteBuf body) {
+            if (!channel.isActive()) {
+                return;
+            }
+            channel.writeAndFlush(FrameCodec.encode(channel.alloc(), correlationIdMode, clientCorrelationId,
+                    messageType, body));
+        }
+
+        @Override
+        public void onFailure(AuthorizeResponse response) {
+            if (!channel.isActive()) {
+                return;
+            }
+            ByteBuf body = channel.alloc().heapBuffer();
+            try {
+                encoding.writeResponse(body, response.status(), response.reasonCode());
+                channel.writeAndFlush(FrameCodec.encode(channel.alloc(), correlationIdMode, clientCorrelationId,
+                        responseType, body));
+            } finally {
+                body.release();
+            }
+        }
+    }
+}
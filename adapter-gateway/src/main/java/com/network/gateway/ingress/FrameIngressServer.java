@@ -0,0 +1,88 @@
+package com.network.gateway.ingress;
+
+import com.network.common.netty.NettyTransport;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.mux.MuxEngine;
+import com.network.gateway.netty.FrameDecoder;
+import com.network.gateway.observability.GatewayMetrics;
+import com.network.gateway.session.UpstreamSessionPool;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업스트림과 같은 length-prefixed Frame 프로토콜을 받는 TCP ingress (gateway.ingress.frame.enabled=true).
+ * 여러 클라이언트 연결의 요청을 소수의 UpstreamSession으로 멀티플렉싱한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "gateway.ingress.frame", name = "enabled", havingValue = "true")
+public class FrameIngressServer {
+
+    private final GatewayProperties properties;
+    private final UpstreamSessionPool sessionPool;
+    private final MuxEngine muxEngine;
+    private final AdmissionControl admissionControl;
+    private final GatewayMetrics metrics;
+
+    private EventLoopGroup bossGroup;
+    private ChannelFuture serverFuture;
+
+    @PostConstruct
+    public void start() {
+        GatewayProperties.FrameIngress frame = properties.getIngress().getFrame();
+        // child 그룹(업스트림 워커 그룹)과 같은 transport여야 accept한 채널을 등록할 수 있다
+        NettyTransport transport = sessionPool.getTransport();
+        bossGroup = transport.newEventLoopGroup(1);
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, sessionPool.getWorkerGroup())
+                .channel(transport.serverSocketChannel())
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                                .addLast("frameDecoder", new FrameDecoder())
+                                .addLast("ingressHandler", new FrameIngressHandler(
+                                        muxEngine, admissionControl, metrics, frame.getCorrelationIdMode()));
+                    }
+                })
+                .option(ChannelOption.SO_BACKLOG, 1024)
+                .option(ChannelOption.ALLOCATOR, sessionPool.getAllocator())
+                .childOption(ChannelOption.ALLOCATOR, sessionPool.getAllocator())
+                .childOption(ChannelOption.SO_KEEPALIVE, true)
+                .childOption(ChannelOption.TCP_NODELAY, true);
+        transport.configure(bootstrap, properties.getTransport().nativeOptions());
+
+        try {
+            serverFuture = bootstrap.bind(frame.getPort()).sync();
+            log.info("Frame ingress started on port {} (correlationIdMode={})",
+                    frame.getPort(), frame.getCorrelationIdMode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to start Frame ingress", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        // child 이벤트 루프 그룹은 UpstreamSessionPool이 소유하므로 여기서는 종료하지 않는다
+        if (serverFuture != null) {
+            serverFuture.channel().close();
+        }
+        if (bossGroup != null) {
+            bossGroup.shutdownGracefully();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.network.gateway.ingress;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.CancelRequest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Netty HTTP ingress 핸들러. /v1/authorize, /v1/cancel, /v1/inquiry/{txId}를 직접 라우팅해
+ * IngressService(→ MuxEngine)에 이벤트 루프에서 바로 넘기고, future 완료 시 응답을 쓴다.
+ * 응답은 완료 순서와 상관없이 요청 순서대로 써야 하므로(HTTP/1.1 파이프라이닝) 채널마다 응답 FIFO를 두고
+ * 앞선 응답이 모두 써진 것만 내보낸다. 미완료 응답이 {@link #MAX_PIPELINED}개에 이르면 읽기를 멈춘다.
+ * 채널마다 새 인스턴스를 쓰며, FIFO는 이벤트 루프에서만 건드린다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HttpIngressHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+    private static final String AUTHORIZE_PATH = "/v1/authorize";
+    private static final String AUTHORIZE_BATCH_PATH = "/v1/authorize/batch";
+    private static final String CANCEL_PATH = "/v1/cancel";
+    private static final String INQUIRY_PREFIX = "/v1/inquiry/";
+
+    static final int MAX_PIPELINED = 16;
+
+    private final IngressService ingressService;
+    private final ObjectMapper objectMapper;
+    private final ArrayDeque<PendingResponse> pending = new ArrayDeque<>();
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+        PendingResponse slot = new PendingResponse(HttpUtil.isKeepAlive(request));
+        pending.add(slot);
+        if (pending.size() >= MAX_PIPELINED) {
+            ctx.channel().config().setAutoRead(false);
+        }
+
+        CompletableFuture<? extends ResponseEntity<?>> response;
+        try {
+            response = route(request);
+        } catch (IOException e) {
+            log.debug("Malformed request body: {}", e.getMessage());
+            response = CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        } catch (RuntimeException e) {
+            // 예외를 exceptionCaught로 올리면 연결이 닫혀 앞서 파이프라인된 응답까지 잃으므로 이 자리만 500으로 채운다
+            log.error("Failed to route ingress request", e);
+            response = CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+
+        response.whenComplete((entity, e) -> {
+            ResponseEntity<?> result = entity;
+            if (e != null) {
+                log.error("Failed to process ingress request", e);
+                result = ResponseEntity.internalServerError().build();
+            }
+            // 업스트림 응답/타임아웃은 다른 스레드에서 완료될 수 있으므로 FIFO는 채널 이벤트 루프에서만 만진다
+            ResponseEntity<?> completed = result;
+            if (ctx.executor().inEventLoop()) {
+                complete(ctx, slot, completed);
+            } else {
+                ctx.executor().execute(() -> complete(ctx, slot, completed));
+            }
+        });
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        // 닫힌 채널에 쓸 응답은 버린다 (뒤늦게 완료돼도 FIFO에 없으므로 아무것도 쓰지 않는다)
+        pending.clear();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.error("Ingress channel exception: {}", cause.getMessage(), cause);
+        ctx.close();
+    }
+
+    private CompletableFuture<? extends ResponseEntity<?>> route(FullHttpRequest request) throws IOException {
+        if (!request.decoderResult().isSuccess()) {
+            throw new IOException("HTTP decode failed: " + request.decoderResult().cause());
+        }
+        String path = new QueryStringDecoder(request.uri()).path();
+        HttpMethod method = request.method();
+        Long timeoutMs = readTimeoutHeader(request);
+
+        if (AUTHORIZE_PATH.equals(path)) {
+            if (!HttpMethod.POST.equals(method)) {
+                return methodNotAllowed();
+            }
+            return ingressService.authorize(readBody(request.content(), AuthorizeRequest.class), timeoutMs);
+        }
+        if (AUTHORIZE_BATCH_PATH.equals(path)) {
+            if (!HttpMethod.POST.equals(method)) {
+                return methodNotAllowed();
+            }
+            JavaType batchType = objectMapper.getTypeFactory().constructCollectionType(List.class, AuthorizeRequest.class);
+            List<AuthorizeRequest> batch = readBody(request.content(), batchType);
+            if (batch.contains(null)) {
+                throw new IOException("batch contains a null item");
+            }
+            return ingressService.authorizeBatch(batch, timeoutMs);
+        }
+        if (CANCEL_PATH.equals(path)) {
+            if (!HttpMethod.POST.equals(method)) {
+                return methodNotAllowed();
+            }
+            return ingressService.cancel(readBody(request.content(), CancelRequest.class), timeoutMs);
+        }
+        if (path.startsWith(INQUIRY_PREFIX) && path.length() > INQUIRY_PREFIX.length()) {
+            if (!HttpMethod.GET.equals(method)) {
+                return methodNotAllowed();
+            }
+            return CompletableFuture.completedFuture(
+                    ingressService.inquiry(path.substring(INQUIRY_PREFIX.length())));
+        }
+        return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+    }
+
+    // 잘못된 값은 헤더가 없는 것으로 보고 게이트웨이 기본 타임아웃을 쓴다
+    private static Long readTimeoutHeader(FullHttpRequest request) {
+        String value = request.headers().get(IngressService.REQUEST_TIMEOUT_HEADER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", IngressService.REQUEST_TIMEOUT_HEADER, value);
+            return null;
+        }
+    }
+
+    private <T> T readBody(ByteBuf content, Class<T> type) throws IOException {
+        return readBody(content, objectMapper.getTypeFactory().constructType(type));
+    }
+
+    private <T> T readBody(ByteBuf content, JavaType type) throws IOException {
+        // 요청 버퍼는 SimpleChannelInboundHandler가 해제하므로 스트림이 해제하지 않게 한다.
+        // ByteBufInputStream은 DataInput도 구현하므로 InputStream 오버로드로 고정한다.
+        T body;
+        try (ByteBufInputStream in = new ByteBufInputStream(content, false)) {
+            body = objectMapper.readValue((InputStream) in, type);
+        }
+        // JSON null은 Jackson이 예외 없이 null로 돌려준다
+        if (body == null) {
+            throw new IOException("request body is null");
+        }
+        return body;
+    }
+
+    private void complete(ChannelHandlerContext ctx, PendingResponse slot, ResponseEntity<?> entity) {
+        slot.entity = entity;
+        writeReady(ctx);
+    }
+
+    // FIFO 앞에서부터 완료된 응답만 쓴다. 앞 요청이 미완료면 뒤 응답은 기다린다.
+    private void writeReady(ChannelHandlerContext ctx) {
+        boolean written = false;
+        PendingResponse head;
+        while ((head = pending.peek()) != null && head.entity != null) {
+            pending.poll();
+            FullHttpResponse response = toHttpResponse(ctx, head.entity, head.keepAlive);
+            if (!head.keepAlive) {
+                // Connection: close 이후의 파이프라인 요청에는 응답하지 않는다
+                pending.clear();
+                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+                return;
+            }
+            ctx.write(response);
+            written = true;
+        }
+        if (written) {
+            ctx.flush();
+        }
+        if (pending.size() < MAX_PIPELINED && !ctx.channel().config().isAutoRead()) {
+            ctx.channel().config().setAutoRead(true);
+        }
+    }
+
+    private FullHttpResponse toHttpResponse(ChannelHandlerContext ctx, ResponseEntity<?> entity, boolean keepAlive) {
+        ByteBuf content = Unpooled.EMPTY_BUFFER;
+        HttpResponseStatus status = HttpResponseStatus.valueOf(entity.getStatusCode().value());
+        if (entity.getBody() != null) {
+            content = ctx.alloc().ioBuffer();
+            try (ByteBufOutputStream out = new ByteBufOutputStream(content)) {
+                objectMapper.writeValue((OutputStream) out, entity.getBody());
+            } catch (IOException e) {
+                log.error("Failed to serialize ingress response", e);
+                content.release();
+                content = Unpooled.EMPTY_BUFFER;
+                status = HttpResponseStatus.valueOf(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
+        response.headers()
+                .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+        HttpUtil.setKeepAlive(response, keepAlive);
+        return response;
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> methodNotAllowed() {
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build());
+    }
+
+    // 요청 순서대로 쌓이는 응답 자리. entity가 채워지면 완료된 것이다.
+    private static final class PendingResponse {
+
+        private final boolean keepAlive;
+        private ResponseEntity<?> entity;
+
+        private PendingResponse(boolean keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.network.gateway.ingress;
+
+import com.network.common.dto.*;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.admission.Reservation;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.idempotency.IdempotencyStore;
+import com.network.gateway.mux.MuxEngine;
+import com.network.gateway.observability.GatewayMetrics;
+import com.network.gateway.observability.TransactionLogger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ingress 공통 처리: 멱등성 → admission → MuxEngine 제출 → 비동기 응답.
+ * Spring MVC(IngressController)와 Netty HTTP ingress가 같은 로직을 공유한다.
+ * 어떤 메서드도 호출 스레드를 블로킹하지 않으므로 Netty 이벤트 루프에서 바로 호출해도 된다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class IngressService {
+
+    /** 호출자가 응답을 기다릴 남은 시간(ms). 시계 차이를 피하려고 절대 시각 대신 상대 값을 받는다. */
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final MuxEngine muxEngine;
+    private final AdmissionControl admissionControl;
+    private final IdempotencyStore idempotencyStore;
+    private final GatewayMetrics metrics;
+    private final TransactionLogger txLogger;
+    private final GatewayProperties properties;
+
+    public CompletableFuture<ResponseEntity<AuthorizeResponse>> authorize(AuthorizeRequest request) {
+        return authorize(request, null);
+    }
+
+    /**
+     * @param timeoutMs 호출자 남은 예산(ms), 없으면 null. 예산은 대기열과 업스트림 타임아웃까지 이어진다.
+     */
+    public CompletableFuture<ResponseEntity<AuthorizeResponse>> authorize(AuthorizeRequest request, Long timeoutMs) {
+        if (!canEncode(request)) {
+            return CompletableFuture.completedFuture(badRequest());
+        }
+        if (isExpired(timeoutMs)) {
+            return CompletableFuture.completedFuture(timeoutResponse("DEADLINE_EXCEEDED"));
+        }
+
+        // 1. 멱등성 체크
+        String idempotencyKey = request.idempotencyKey();
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            IdempotencyStore.IdempotencyEntry existing = idempotencyStore.getIfPresent(idempotencyKey);
+            if (existing != null) {
+                if (existing.isCompleted()) {
+                    return CompletableFuture.completedFuture(ResponseEntity.ok(existing.getResponse()));
+                }
+                // 처리 중인 요청에 attach
+                return existing.getFuture()
+                        .thenApply(ResponseEntity::ok)
+                        .exceptionally(e -> timeoutResponse("IDEMPOTENT_WAIT_TIMEOUT"))
+                        .completeOnTimeout(timeoutResponse("IDEMPOTENT_WAIT_TIMEOUT"),
+                                idempotentWaitMs(timeoutMs), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        // 2. Admission control: 세션 slot(또는 대기열 자리)을 토큰으로 선점
+        Reservation reservation = reserve(timeoutMs);
+        if (reservation == null) {
+            return CompletableFuture.completedFuture(busyResponse());
+        }
+
+        // 3. 요청 제출 (토큰은 MuxEngine이 소비하고 완료/타임아웃/실패 시 반환한다)
+        CompletableFuture<AuthorizeResponse> future;
+        try {
+            future = muxEngine.submit(request, MessageType.AUTH_REQ, idempotencyKey, reservation);
+        } catch (RuntimeException e) {
+            reservation.release();
+            return CompletableFuture.completedFuture(submitFailed(e));
+        }
+
+        // 멱등성 등록
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            idempotencyStore.putIfAbsent(idempotencyKey, future);
+        }
+
+        // 4. 비동기 응답 (타임아웃은 스레드 점유 없이 적용)
+        return future
+                .thenApply(response -> {
+                    txLogger.logResponse(response);
+
+                    if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                        idempotencyStore.markCompleted(idempotencyKey, response);
+                    }
+                    return toResponseEntity(response);
+                })
+                .exceptionally(e -> {
+                    log.error("Failed to get response", e);
+                    return timeoutResponse("GATEWAY_TIMEOUT");
+                })
+                .completeOnTimeout(timeoutResponse("GATEWAY_TIMEOUT"),
+                        responseWaitMs(timeoutMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 배치 승인. 항목별로 멱등성을 확인하고, 새로 보낼 항목만 한 단위로 admission 후
+     * MuxEngine에 한 번에 제출한다(세션당 flush 1회). 결과는 요청 순서대로 모아 한 번에 응답한다.
+     */
+    public CompletableFuture<ResponseEntity<List<AuthorizeResponse>>> authorizeBatch(List<AuthorizeRequest> requests) {
+        return authorizeBatch(requests, null);
+    }
+
+    public CompletableFuture<ResponseEntity<List<AuthorizeResponse>>> authorizeBatch(List<AuthorizeRequest> requests,
+                                                                                     Long timeoutMs) {
+        GatewayProperties.Ingress ingress = properties.getIngress();
+        if (requests.size() > ingress.getMaxBatchSize()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+        }
+        // 인코딩할 수 없는 항목이 하나라도 있으면 배치 전체를 거절한다 (예약 전에 확인)
+        for (AuthorizeRequest request : requests) {
+            if (!canEncode(request)) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+            }
+        }
+        if (isExpired(timeoutMs)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(Collections.nCopies(requests.size(), timeoutBody("DEADLINE_EXCEEDED"))));
+        }
+
+        int size = requests.size();
+        List<CompletableFuture<AuthorizeResponse>> results = new ArrayList<>(Collections.nCopies(size, null));
+        List<AuthorizeRequest> toSubmit = new ArrayList<>(size);
+        List<Integer> submitIndexes = new ArrayList<>(size);
+        // 같은 배치 안에서 키가 중복되면 첫 항목의 결과를 공유한다
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        Map<Integer, Integer> duplicates = new HashMap<>();
+
+        // 1. 항목별 멱등성 체크: 완료/처리 중인 항목은 제출하지 않고 기존 결과에 attach
+        for (int i = 0; i < size; i++) {
+            AuthorizeRequest request = requests.get(i);
+            String idempotencyKey = request.idempotencyKey();
+            if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                Integer first = firstIndexByKey.putIfAbsent(idempotencyKey, i);
+                if (first != null) {
+                    duplicates.put(i, first);
+                    continue;
+                }
+                IdempotencyStore.IdempotencyEntry existing = idempotencyStore.getIfPresent(idempotencyKey);
+                if (existing != null) {
+                    results.set(i, existing.isCompleted()
+                            ? CompletableFuture.completedFuture(existing.getResponse())
+                            : existing.getFuture()
+                                    .exceptionally(e -> timeoutBody("IDEMPOTENT_WAIT_TIMEOUT"))
+                                    .completeOnTimeout(timeoutBody("IDEMPOTENT_WAIT_TIMEOUT"),
+                                            idempotentWaitMs(timeoutMs), TimeUnit.MILLISECONDS));
+                    continue;
+                }
+            }
+            toSubmit.add(request);
+            submitIndexes.add(i);
+        }
+
+        // 2. Admission control (배치 단위: 전부 예약하거나 전부 거절)
+        List<Reservation> reservations = toSubmit.isEmpty()
+                ? List.of()
+                : timeoutMs == null
+                        ? admissionControl.tryReserveBatch(toSubmit.size())
+                        : admissionControl.tryReserveBatch(toSubmit.size(), clientDeadlineNanos(timeoutMs));
+        if (reservations == null) {
+            metrics.incrementBusyReject();
+            txLogger.logBusyReject("batch of " + toSubmit.size() + " exceeds inflight/queue limit");
+            AuthorizeResponse busy = new AuthorizeResponse(null, TransactionStatus.BUSY, "CAPACITY_EXCEEDED", 0, null);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Collections.nCopies(size, busy)));
+        }
+
+        // 3. 한 번에 제출 + 멱등성 등록
+        List<CompletableFuture<AuthorizeResponse>> submitted;
+        try {
+            submitted = muxEngine.submitBatch(toSubmit, MessageType.AUTH_REQ, reservations);
+        } catch (RuntimeException e) {
+            // 소비된 토큰은 MuxEngine이 반환하므로 release는 아직 소비되지 않은 토큰에만 효과가 있다
+            reservations.forEach(Reservation::release);
+            AuthorizeResponse error = submitFailed(e).getBody();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.nCopies(size, error)));
+        }
+        for (int j = 0; j < submitted.size(); j++) {
+            String idempotencyKey = toSubmit.get(j).idempotencyKey();
+            CompletableFuture<AuthorizeResponse> future = submitted.get(j);
+            if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                idempotencyStore.putIfAbsent(idempotencyKey, future);
+            }
+            results.set(submitIndexes.get(j), future
+                    .thenApply(response -> {
+                        txLogger.logResponse(response);
+                        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                            idempotencyStore.markCompleted(idempotencyKey, response);
+                        }
+                        return response;
+                    })
+                    .exceptionally(e -> {
+                        log.error("Failed to get batch item response", e);
+                        return timeoutBody("GATEWAY_TIMEOUT");
+                    })
+                    .completeOnTimeout(timeoutBody("GATEWAY_TIMEOUT"),
+                            responseWaitMs(timeoutMs), TimeUnit.MILLISECONDS));
+        }
+        duplicates.forEach((index, first) -> results.set(index, results.get(first)));
+
+        // 4. 집계: 항목별 타임아웃이 걸려 있으므로 느린 항목이 있어도 제한 시간 안에 응답한다
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(v -> ResponseEntity.ok(results.stream().map(CompletableFuture::join).toList()));
+    }
+
+    public CompletableFuture<ResponseEntity<AuthorizeResponse>> cancel(CancelRequest request) {
+        return cancel(request, null);
+    }
+
+    public CompletableFuture<ResponseEntity<AuthorizeResponse>> cancel(CancelRequest request, Long timeoutMs) {
+        if (isExpired(timeoutMs)) {
+            return CompletableFuture.completedFuture(timeoutResponse("DEADLINE_EXCEEDED"));
+        }
+        AuthorizeRequest wrapped = new AuthorizeRequest(
+                request.merchantId(), 0, null, request.idempotencyKey(),
+                request.txId(), request.payload());
+        if (!canEncode(wrapped)) {
+            return CompletableFuture.completedFuture(badRequest());
+        }
+
+        Reservation reservation = reserve(timeoutMs);
+        if (reservation == null) {
+            return CompletableFuture.completedFuture(busyResponse());
+        }
+
+        CompletableFuture<AuthorizeResponse> future;
+        try {
+            future = muxEngine.submit(wrapped, MessageType.CANCEL_REQ, request.idempotencyKey(), reservation);
+        } catch (RuntimeException e) {
+            reservation.release();
+            return CompletableFuture.completedFuture(submitFailed(e));
+        }
+
+        return future
+                .thenApply(response -> {
+                    txLogger.logResponse(response);
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> timeoutResponse("GATEWAY_TIMEOUT"))
+                .completeOnTimeout(timeoutResponse("GATEWAY_TIMEOUT"),
+                        responseWaitMs(timeoutMs), TimeUnit.MILLISECONDS);
+    }
+
+    public ResponseEntity<InquiryResponse> inquiry(String txId) {
+        // MVP: inquiry는 현재 pending 상태만 확인
+        return ResponseEntity.ok(new InquiryResponse(txId, TransactionStatus.APPROVED, "OK", 0));
+    }
+
+    private ResponseEntity<AuthorizeResponse> toResponseEntity(AuthorizeResponse response) {
+        return switch (response.status()) {
+            case APPROVED, DECLINED -> ResponseEntity.ok(response);
+            case TIMEOUT -> ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(response);
+            case BUSY -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+            case ERROR -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        };
+    }
+
+    // 업스트림 바디 인코딩 한도(BINARY 필드 길이)를 넘는 요청은 slot을 잡기 전에 거절한다
+    private boolean canEncode(AuthorizeRequest request) {
+        return properties.getUpstream().getBodyEncoding().canEncode(request);
+    }
+
+    private static ResponseEntity<AuthorizeResponse> badRequest() {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new AuthorizeResponse(null, TransactionStatus.ERROR, "FIELD_TOO_LARGE", 0, null));
+    }
+
+    // 도착했을 때 이미 예산이 없는 요청은 admission 전에 버린다
+    private boolean isExpired(Long timeoutMs) {
+        if (timeoutMs != null && timeoutMs <= 0) {
+            metrics.incrementDroppedAtIngress();
+            return true;
+        }
+        return false;
+    }
+
+    private Reservation reserve(Long timeoutMs) {
+        return timeoutMs == null
+                ? admissionControl.tryReserve()
+                : admissionControl.tryReserve(clientDeadlineNanos(timeoutMs));
+    }
+
+    private static long clientDeadlineNanos(long timeoutMs) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    private long responseWaitMs(Long timeoutMs) {
+        long configured = properties.getIngress().getResponseTimeoutMs();
+        return timeoutMs == null ? configured : Math.min(configured, timeoutMs);
+    }
+
+    // 처리 중인 같은 키의 결과를 기다리는 시간도 호출자 남은 예산을 넘지 않는다
+    private long idempotentWaitMs(Long timeoutMs) {
+        long configured = properties.getIngress().getIdempotentWaitMs();
+        return timeoutMs == null ? configured : Math.min(configured, timeoutMs);
+    }
+
+    private ResponseEntity<AuthorizeResponse> submitFailed(RuntimeException e) {
+        log.error("Failed to submit request", e);
+        metrics.incrementError();
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new AuthorizeResponse(null, TransactionStatus.ERROR, "SUBMIT_FAILED", 0, null));
+    }
+
+    private ResponseEntity<AuthorizeResponse> busyResponse() {
+        metrics.incrementBusyReject();
+        txLogger.logBusyReject("inflight/queue limit exceeded");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new AuthorizeResponse(null, TransactionStatus.BUSY, "CAPACITY_EXCEEDED", 0, null));
+    }
+
+    private static ResponseEntity<AuthorizeResponse> timeoutResponse(String reasonCode) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(timeoutBody(reasonCode));
+    }
+
+    private static AuthorizeResponse timeoutBody(String reasonCode) {
+        return new AuthorizeResponse(null, TransactionStatus.TIMEOUT, reasonCode, 0, null);
+    }
+}
@@ -0,0 +1,86 @@
+package com.network.gateway.ingress;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.network.common.netty.NettyTransport;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.session.UpstreamSessionPool;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tomcat/Spring MVC를 거치지 않는 Netty HTTP/1.1 ingress (gateway.ingress.netty.enabled=true).
+ * child 채널은 업스트림 세션과 같은 이벤트 루프 그룹에서 돈다. actuator는 기존 server.port에 남는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(prefix = "gateway.ingress.netty", name = "enabled", havingValue = "true")
+public class NettyHttpIngressServer {
+
+    private final GatewayProperties properties;
+    private final UpstreamSessionPool sessionPool;
+    private final IngressService ingressService;
+    private final ObjectMapper objectMapper;
+
+    private EventLoopGroup bossGroup;
+    private ChannelFuture serverFuture;
+
+    @PostConstruct
+    public void start() {
+        GatewayProperties.NettyHttp netty = properties.getIngress().getNetty();
+        // child 그룹(업스트림 워커 그룹)과 같은 transport여야 accept한 채널을 등록할 수 있다
+        NettyTransport transport = sessionPool.getTransport();
+        int maxContentLength = properties.getIngress().httpMaxContentLength();
+        bossGroup = transport.newEventLoopGroup(1);
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, sessionPool.getWorkerGroup())
+                .channel(transport.serverSocketChannel())
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                                .addLast("httpCodec", new HttpServerCodec())
+                                .addLast("httpAggregator", new HttpObjectAggregator(maxContentLength))
+                                .addLast("ingressHandler", new HttpIngressHandler(ingressService, objectMapper));
+                    }
+                })
+                .option(ChannelOption.SO_BACKLOG, 1024)
+                .option(ChannelOption.ALLOCATOR, sessionPool.getAllocator())
+                .childOption(ChannelOption.ALLOCATOR, sessionPool.getAllocator())
+                .childOption(ChannelOption.SO_KEEPALIVE, true)
+                .childOption(ChannelOption.TCP_NODELAY, true);
+        transport.configure(bootstrap, properties.getTransport().nativeOptions());
+
+        try {
+            serverFuture = bootstrap.bind(netty.getPort()).sync();
+            log.info("Netty HTTP ingress started on port {}", netty.getPort());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Failed to start Netty HTTP ingress", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        // child 이벤트 루프 그룹은 UpstreamSessionPool이 소유하므로 여기서는 종료하지 않는다
+        if (serverFuture != null) {
+            serverFuture.channel().close();
+        }
+        if (bossGroup != null) {
+            bossGroup.shutdownGracefully();
+        }
+    }
+}
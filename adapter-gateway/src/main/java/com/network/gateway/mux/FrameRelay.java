@@ -0,0 +1,21 @@
+package com.network.gateway.mux;
+
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.protocol.MessageType;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 업스트림 응답을 AuthorizeResponse로 파싱하지 않고 원본 그대로 넘겨받는 콜백 (Frame ingress 중계용).
+ */
+public interface FrameRelay {
+
+    /**
+     * 업스트림 응답 프레임 수신. 업스트림 이벤트 루프에서 호출되며, body는 반환 후 해제되므로 보관하지 않는다.
+     */
+    void onResponse(MessageType messageType, ByteBuf body);
+
+    /**
+     * 업스트림 응답 없이 끝난 경우 (세션 없음, 전송 실패, 타임아웃, 세션 다운).
+     */
+    void onFailure(AuthorizeResponse response);
+}
@@ -0,0 +1,67 @@
+package com.network.gateway.mux;
+
+import com.network.common.dto.AuthorizeResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 원 요청과 hedge 사본이 공유하는 결과 슬롯. 먼저 도착한 성공 응답만 전달하고,
+ * 실패(timeout/세션 다운/전송 실패)는 마지막 남은 사본까지 실패했을 때만 전달한다.
+ * 진 쪽 응답은 pending 테이블에서 정상 매칭된 뒤 조용히 버려지므로 late response로 집계되지 않는다.
+ */
+class HedgeGroup {
+
+    private final FrameRelay relay;
+    private final CompletableFuture<AuthorizeResponse> future = new CompletableFuture<>();
+    private final AtomicBoolean done = new AtomicBoolean();
+    // 전송되어 아직 결과가 없는 사본 수
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+    private volatile PendingRequest primary;
+    private volatile long deadlineNanos;
+
+    HedgeGroup(FrameRelay relay) {
+        this.relay = relay;
+    }
+
+    FrameRelay getRelay() { return relay; }
+    CompletableFuture<AuthorizeResponse> getFuture() { return future; }
+    PendingRequest getPrimary() { return primary; }
+    long getDeadlineNanos() { return deadlineNanos; }
+
+    /**
+     * 첫 전송(원 요청)을 등록한다. 이후 같은 그룹으로 보내는 요청은 hedge 사본이다.
+     */
+    void setPrimary(PendingRequest primary, long deadlineNanos) {
+        this.primary = primary;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    boolean isPrimary(PendingRequest pending) {
+        return primary == pending;
+    }
+
+    boolean isDone() {
+        return done.get();
+    }
+
+    void addMember() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * 성공 응답. 그룹에서 처음이면 true (전달), 이미 끝났으면 false (버림).
+     */
+    boolean tryWin() {
+        outstanding.decrementAndGet();
+        return done.compareAndSet(false, true);
+    }
+
+    /**
+     * 실패. 남은 사본이 없고 아직 끝나지 않았으면 true (실패 전달), 아니면 다른 사본을 기다린다.
+     */
+    boolean tryFail() {
+        return outstanding.decrementAndGet() == 0 && done.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,60 @@
+package com.network.gateway.mux;
+
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.session.LatencyTracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * hedge 시점과 예산. 시점은 최근 구간 INQUIRY 응답 지연의 분위수, 예산은 요청 비율만큼 쌓이는 토큰이다.
+ * <ul>
+ *   <li>지연 분포는 windowMs마다 새로 모으고, 직전 구간 + 현재 구간 분포로 시점을 정한다</li>
+ *   <li>INQUIRY 요청마다 budgetPercent/100 토큰을 쌓고(최대 budgetBurst), hedge 하나에 1 토큰을 쓴다</li>
+ * </ul>
+ */
+class HedgePolicy {
+
+    private static final long MILLI_TOKENS = 1000;
+
+    private final GatewayProperties.Hedge config;
+    private final AtomicLong budgetMilliTokens = new AtomicLong();
+    private final LatencyTracker latency;
+
+    HedgePolicy(GatewayProperties.Hedge config) {
+        this.config = config;
+        this.latency = new LatencyTracker(1.0, config.getWindowMs());
+    }
+
+    boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    void recordLatency(long latencyNanos) {
+        latency.record(latencyNanos);
+    }
+
+    /**
+     * 원 요청을 보낸 뒤 hedge를 보내기까지 기다릴 시간 (ms).
+     */
+    long delayMillis() {
+        return Math.max(config.getMinDelayMs(), latency.quantileMillis(config.getPercentile()));
+    }
+
+    void deposit() {
+        long cap = config.getBudgetBurst() * MILLI_TOKENS;
+        long add = Math.round(config.getBudgetPercent() * MILLI_TOKENS / 100.0);
+        budgetMilliTokens.updateAndGet(tokens -> Math.min(cap, tokens + add));
+    }
+
+    boolean tryWithdraw() {
+        while (true) {
+            long tokens = budgetMilliTokens.get();
+            if (tokens < MILLI_TOKENS) {
+                return false;
+            }
+            if (budgetMilliTokens.compareAndSet(tokens, tokens - MILLI_TOKENS)) {
+                return true;
+            }
+        }
+    }
+}
@@ -3,13 +3,24 @@ package com.network.gateway.mux;
 import com.network.common.dto.AuthorizeRequest;
 import com.network.common.dto.AuthorizeResponse;
 import com.network.common.dto.TransactionStatus;
+import com.network.common.protocol.BodyEncoding;
 import com.network.common.protocol.CorrelationIdGenerator;
-import com.network.common.protocol.Frame;
+import com.network.common.protocol.FrameView;
 import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.admission.Reservation;
 import com.network.gateway.config.GatewayProperties;
 import com.network.gateway.observability.GatewayMetrics;
 import com.network.gateway.session.UpstreamSession;
 import com.network.gateway.session.UpstreamSessionPool;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -17,10 +28,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.*;
 
 @Slf4j
@@ -28,93 +42,499 @@ import java.util.concurrent.*;
 @Component
 public class MuxEngine {
 
+    private static final HexFormat HEX = HexFormat.of();
+
     private final GatewayProperties properties;
     private final UpstreamSessionPool sessionPool;
     private final GatewayMetrics metrics;
-    private final PendingMap pendingMap = new PendingMap();
-    private final CorrelationIdGenerator corrIdGen = new CorrelationIdGenerator();
-    private ScheduledExecutorService timeoutScheduler;
+    private final AdmissionControl admissionControl;
+    // 모든 세션이 inflight 한도일 때의 FIFO 대기열. 깊이는 AdmissionControl의 queueDepth로 제한한다.
+    private final Queue<QueuedRequest> waitQueue = new ConcurrentLinkedQueue<>();
+    private PendingTable pendingTable;
+    private CorrelationIdGenerator corrIdGen;
+    private HashedWheelTimer timeoutTimer;
+    private HedgePolicy hedgePolicy;
+    // 요청 바디 버퍼용. 세션 채널과 같은 allocator(gateway.allocator)를 쓴다
+    private ByteBufAllocator bodyAllocator;
+    // 샤딩 모드에서만 생성한다 (null이면 전역 pendingTable/corrIdGen/timeoutTimer)
+    private MuxShard[] shards;
 
     @PostConstruct
     public void init() {
-        timeoutScheduler = Executors.newScheduledThreadPool(2, r -> {
-            Thread t = new Thread(r, "mux-timeout");
-            t.setDaemon(true);
-            return t;
-        });
+        GatewayProperties.Upstream upstream = properties.getUpstream();
+        corrIdGen = new CorrelationIdGenerator(upstream.getCorrelationIdMode(), upstream.getNodeId());
+        pendingTable = new PendingTable(upstream.getMaxSessions() * upstream.getMaxInflightPerSession());
+        if (upstream.getSharding().isEnabled() && sessionPool.getWorkerGroup() != null) {
+            shards = createShards(sessionPool.getWorkerGroup());
+            log.info("Sharded mux enabled: {} event loop shards", shards.length);
+        }
+        // 요청마다 ScheduledFutureTask를 힙 큐에 쌓는 대신 해시드 휠에 O(1)로 등록하고, 완료 시 취소한다.
+        timeoutTimer = new HashedWheelTimer(new DefaultThreadFactory("mux-timeout", true),
+                upstream.getTimeoutTickMs(), TimeUnit.MILLISECONDS, upstream.getTimeoutWheelSize());
+        timeoutTimer.start();
+        metrics.registerTimeoutWheelGauge(timeoutTimer::pendingTimeouts);
+        hedgePolicy = new HedgePolicy(upstream.getHedge());
+        // 풀이 init 되지 않은 구성(테스트/벤치마크)에서는 allocator가 없다
+        ByteBufAllocator poolAllocator = sessionPool.getAllocator();
+        bodyAllocator = poolAllocator != null ? poolAllocator : ByteBufAllocator.DEFAULT;
+        sessionPool.addSessionDownListener(this::failPendingForSession);
+    }
+
+    private MuxShard[] createShards(EventLoopGroup group) {
+        GatewayProperties.Upstream upstream = properties.getUpstream();
+        List<EventLoop> loops = new ArrayList<>();
+        for (EventExecutor executor : group) {
+            loops.add((EventLoop) executor);
+        }
+        MuxShard[] created = new MuxShard[loops.size()];
+        for (int i = 0; i < created.length; i++) {
+            // 세션이 한 루프에 몰릴 수도 있으므로 shard마다 전체 inflight를 담을 수 있게 잡는다
+            created[i] = new MuxShard(loops.get(i),
+                    new PendingTable(upstream.getMaxSessions() * upstream.getMaxInflightPerSession()),
+                    new CorrelationIdGenerator(upstream.getCorrelationIdMode(), upstream.getNodeId(), i, created.length));
+        }
+        return created;
     }
 
     @PreDestroy
     public void shutdown() {
-        if (timeoutScheduler != null) {
-            timeoutScheduler.shutdown();
+        if (timeoutTimer != null) {
+            timeoutTimer.stop();
         }
     }
 
     /**
      * 요청을 멀티플렉싱 엔진에 제출한다.
-     * 세션 선택 → pending 등록 → encode + write → timeout 스케줄
+     * 토큰 소비(세션 slot 또는 대기열 자리) → pending 등록 → timeout 등록 → encode + write
      */
     public CompletableFuture<AuthorizeResponse> submit(AuthorizeRequest request, MessageType messageType,
-                                                        String idempotencyKey) {
-        String txId = UUID.randomUUID().toString().substring(0, 8);
-        String correlationId = corrIdGen.next();
+                                                        String idempotencyKey, Reservation reservation) {
+        return submitOne(request, messageType, idempotencyKey, reservation, null);
+    }
+
+    /**
+     * 여러 요청을 한 번에 제출한다. 세션별로 write만 쌓아 두고 마지막에 세션당 한 번만 flush 한다.
+     * 반환 목록의 순서는 requests 순서와 같다.
+     */
+    public List<CompletableFuture<AuthorizeResponse>> submitBatch(List<AuthorizeRequest> requests,
+                                                                  MessageType messageType,
+                                                                  List<Reservation> reservations) {
+        List<CompletableFuture<AuthorizeResponse>> futures = new ArrayList<>(requests.size());
+        Set<UpstreamSession> unflushed = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            for (int i = 0; i < requests.size(); i++) {
+                AuthorizeRequest request = requests.get(i);
+                futures.add(submitOne(request, messageType, request.idempotencyKey(), reservations.get(i), unflushed));
+            }
+        } finally {
+            unflushed.forEach(UpstreamSession::flush);
+        }
+        return futures;
+    }
+
+    private CompletableFuture<AuthorizeResponse> submitOne(AuthorizeRequest request, MessageType messageType,
+                                                           String idempotencyKey, Reservation reservation,
+                                                           Set<UpstreamSession> unflushed) {
+        long correlationId = nextCorrelationId(reservation.getSession());
+        String txId = newTxId(correlationId);
+        if (properties.getUpstream().isLowAllocation()) {
+            return encodeAndDispatch(request, messageType, idempotencyKey, txId, correlationId, reservation, unflushed);
+        }
+
+        // MDC는 제출 구간에만 두고 반드시 제거한다 (풀 스레드 재사용 시 누수, 가상 스레드마다 맵 할당 방지)
+        try (MDC.MDCCloseable txIdCtx = MDC.putCloseable("txId", txId);
+             MDC.MDCCloseable corrIdCtx = MDC.putCloseable("correlationId", Long.toString(correlationId))) {
+            return encodeAndDispatch(request, messageType, idempotencyKey, txId, correlationId, reservation, unflushed);
+        }
+    }
+
+    private CompletableFuture<AuthorizeResponse> encodeAndDispatch(AuthorizeRequest request, MessageType messageType,
+                                                                   String idempotencyKey, String txId,
+                                                                   long correlationId, Reservation reservation,
+                                                                   Set<UpstreamSession> unflushed) {
+        // 바디는 프레임 인코딩 시 복사되고, 대기열/hedge는 필요한 만큼 retain 하므로 여기서 해제한다
+        ByteBuf body = bodyAllocator.heapBuffer();
+        try {
+            try {
+                properties.getUpstream().getBodyEncoding().writeRequest(body, request);
+            } catch (RuntimeException e) {
+                // ingress 검증을 거치지 않은 요청(필드 길이 초과 등): 토큰을 돌려주지 않으면 slot이 영구히 사라진다
+                reservation.release();
+                metrics.incrementError();
+                log.warn("[txId={}] Failed to encode request body: {}", txId, e.getMessage());
+                return CompletableFuture.completedFuture(
+                        new AuthorizeResponse(txId, TransactionStatus.ERROR, "ENCODE_FAILED", 0, null));
+            }
+            return dispatch(messageType, body, idempotencyKey, txId, correlationId, null, reservation, unflushed);
+        } finally {
+            body.release();
+        }
+    }
+
+    // 저할당 모드에서는 correlationId를 그대로 txId로 쓴다. MDC가 없어도 로그의 txId로 업스트림 프레임을 찾을 수 있다.
+    // UUID.randomUUID()는 SecureRandom 내부 synchronized 구간을 거쳐 가상 스레드를 carrier에 고정(pin)시키므로 쓰지 않는다
+    private String newTxId(long correlationId) {
+        return properties.getUpstream().isLowAllocation()
+                ? Long.toHexString(correlationId)
+                : HEX.toHexDigits(ThreadLocalRandom.current().nextInt());
+    }
+
+    /**
+     * 클라이언트가 보낸 프레임 바디를 그대로 업스트림으로 중계한다 (Frame ingress).
+     * 업스트림 correlationId를 새로 발급하고, 응답/실패는 relay로 전달한다. body는 호출자가 해제한다.
+     */
+    public void relay(MessageType messageType, ByteBuf body, FrameRelay relay, Reservation reservation) {
+        long correlationId = nextCorrelationId(reservation.getSession());
+        dispatch(messageType, body, null, newTxId(correlationId), correlationId, relay, reservation, null);
+    }
+
+    // unflushed가 null이면 즉시 flush, 아니면 write만 하고 세션을 집합에 모은다 (배치 제출)
+    private CompletableFuture<AuthorizeResponse> dispatch(MessageType messageType, ByteBuf body,
+                                                          String idempotencyKey, String txId, long correlationId,
+                                                          FrameRelay relay, Reservation reservation,
+                                                          Set<UpstreamSession> unflushed) {
+        if (!reservation.consume()) {
+            throw new IllegalStateException("Reservation already consumed or released");
+        }
+
+        // 대기열 토큰: 모든 세션이 한도이거나 앞서 기다리는 요청이 있어 대기열 뒤에 선다 (FIFO)
+        if (reservation.isQueued()) {
+            CompletableFuture<AuthorizeResponse> queued = enqueue(messageType, body, idempotencyKey,
+                    txId, correlationId, relay, reservation.getDeadlineNanos());
+            drainWaitQueue();
+            return queued;
+        }
+
+        // 조회(INQUIRY)는 멱등이라 느린 세션에 걸리면 다른 세션으로 사본을 보낼 수 있다.
+        // 대기열을 거친 요청은 이미 포화 상태이므로 hedge 하지 않는다.
+        HedgeGroup hedge = null;
+        if (messageType == MessageType.INQUIRY_REQ && hedgePolicy.isEnabled()) {
+            hedgePolicy.deposit();
+            metrics.incrementHedgeEligible();
+            hedge = new HedgeGroup(relay);
+        }
 
-        MDC.put("txId", txId);
-        MDC.put("correlationId", correlationId);
+        return sendOnOwner(reservation.getSession(), messageType, body, idempotencyKey, txId, correlationId, relay,
+                unflushed, reservation.getDeadlineNanos(), hedge);
+    }
+
+    /**
+     * 샤딩 모드에서는 세션을 소유한 이벤트 루프에서만 전송한다. 다른 스레드에서 왔으면 루프의 태스크 큐(MPSC)로 넘긴다.
+     * 넘긴 경우 배치 flush 대신 루프에서 바로 flush 하며, 반환 future는 루프에서의 전송 결과를 이어받는다.
+     */
+    private CompletableFuture<AuthorizeResponse> sendOnOwner(UpstreamSession session, MessageType messageType,
+                                                             ByteBuf body, String idempotencyKey, String txId,
+                                                             long correlationId, FrameRelay relay,
+                                                             Set<UpstreamSession> unflushed, long deadlineNanos,
+                                                             HedgeGroup hedge) {
+        Channel channel = session.getChannel();
+        if (shards == null || channel == null || channel.eventLoop().inEventLoop()) {
+            return send(session, messageType, body, idempotencyKey, txId, correlationId, relay, unflushed,
+                    deadlineNanos, hedge);
+        }
 
-        UpstreamSession session = sessionPool.selectSession();
-        if (session == null) {
-            log.warn("[txId={}] No active upstream session", txId);
+        // 중계 요청은 결과를 relay로 받으므로 이어받을 future가 필요 없다
+        CompletableFuture<AuthorizeResponse> result = relay == null ? new CompletableFuture<>() : null;
+        // 호출자는 반환 후 body를 해제하므로 루프에서 쓸 때까지 참조를 유지한다
+        ByteBuf retained = body.retain();
+        try {
+            channel.eventLoop().execute(() -> {
+                try {
+                    CompletableFuture<AuthorizeResponse> sent = send(session, messageType, retained, idempotencyKey,
+                            txId, correlationId, relay, null, deadlineNanos, hedge);
+                    if (result != null) {
+                        sent.whenComplete((response, e) -> {
+                            if (e != null) {
+                                result.completeExceptionally(e);
+                            } else {
+                                result.complete(response);
+                            }
+                        });
+                    }
+                } finally {
+                    retained.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            retained.release();
+            releaseSlot(session);
             metrics.incrementError();
-            return CompletableFuture.completedFuture(
-                    new AuthorizeResponse(txId, TransactionStatus.ERROR, "NO_UPSTREAM", 0, null));
+            return reject(relay,
+                    new AuthorizeResponse(txId, TransactionStatus.ERROR, "WRITE_FAILED", 0, session.getSessionId()));
         }
+        return result;
+    }
 
-        Instant now = Instant.now();
-        int timeoutMs = properties.getUpstream().getRequestTimeoutMs();
-        Instant deadline = now.plusMillis(timeoutMs);
+    // session의 inflight slot은 호출자가 이미 선점해 두었다 (Reservation, drain 또는 hedge의 tryReserve)
+    // hedge가 있으면 처음 보내는 쪽이 원 요청이고 반환값은 그룹의 결과, 이후는 사본이다 (사본 deadline은 원 요청과 같다)
+    private CompletableFuture<AuthorizeResponse> send(UpstreamSession session, MessageType messageType, ByteBuf body,
+                                                      String idempotencyKey, String txId, long correlationId,
+                                                      FrameRelay relay, Set<UpstreamSession> unflushed,
+                                                      long deadlineNanos, HedgeGroup hedge) {
+        long now = System.nanoTime();
+        // 호출자가 이미 포기한 요청은 업스트림에 보내지 않는다
+        if (deadlineNanos - now <= 0) {
+            releaseSlot(session);
+            metrics.incrementDroppedAtDispatch();
+            log.debug("[txId={}] Deadline passed before send, dropping", txId);
+            return reject(relay, deadlineExceeded(txId, 0));
+        }
 
         PendingRequest pending = new PendingRequest(
-                correlationId, txId, now, deadline, session.getSessionId(), idempotencyKey);
-        pendingMap.put(correlationId, pending);
+                correlationId, txId, now, deadlineNanos, session, idempotencyKey, relay);
+        boolean hedgePrimary = false;
+        if (hedge != null) {
+            pending.setHedge(hedge);
+            if (hedge.getPrimary() == null) {
+                hedge.setPrimary(pending, deadlineNanos);
+                hedgePrimary = true;
+            }
+        }
+        if (!tableFor(correlationId).put(correlationId, pending)) {
+            log.error("[txId={}] Pending table has no free slot for correlationId={}", txId, correlationId);
+            releaseSlot(session);
+            metrics.incrementError();
+            return reject(relay,
+                    new AuthorizeResponse(txId, TransactionStatus.ERROR, "PENDING_FULL", 0, session.getSessionId()));
+        }
 
-        session.incrementInflight();
+        session.addPending(pending);
         metrics.setInflight(session.getSessionId(), session.getInflightCount());
 
-        // 프레임 생성 및 전송
-        byte[] body = serializeRequest(request);
-        Frame frame = new Frame(correlationId, messageType, body);
+        // timeout 등록: 응답이 write 직후 도착해도 취소할 수 있도록 전송 전에 건다
+        // 샤딩 모드에서는 세션 루프에 예약해 timeout 처리도 같은 스레드에서 끝낸다
+        long timeoutNanos = Math.max(0, deadlineNanos - System.nanoTime());
+        Channel channel = session.getChannel();
+        if (shards != null && channel != null && channel.eventLoop().inEventLoop()) {
+            pending.setTimeout(channel.eventLoop().schedule(
+                    () -> handleTimeout(correlationId), timeoutNanos, TimeUnit.NANOSECONDS));
+        } else {
+            pending.setTimeout(timeoutTimer.newTimeout(
+                    t -> handleTimeout(correlationId), timeoutNanos, TimeUnit.NANOSECONDS));
+        }
 
-        boolean written = session.write(frame);
+        // 프레임 생성 및 전송
+        boolean written = session.write(correlationId, messageType, body, unflushed == null);
+        if (written && unflushed != null) {
+            unflushed.add(session);
+        }
         if (!written) {
-            pendingMap.remove(correlationId);
-            session.decrementInflight();
-            metrics.setInflight(session.getSessionId(), session.getInflightCount());
+            tableFor(correlationId).remove(correlationId);
+            pending.cancelTimeout();
+            releaseSession(pending);
             log.error("[txId={}] Failed to write to session {}", txId, session.getSessionId());
             metrics.incrementError();
-            return CompletableFuture.completedFuture(
+            return reject(relay,
                     new AuthorizeResponse(txId, TransactionStatus.ERROR, "WRITE_FAILED", 0, session.getSessionId()));
         }
 
-        log.debug("[txId={}] Sent to session={}, correlationId={}", txId, session.getSessionId(), correlationId);
-
-        // timeout 스케줄
-        timeoutScheduler.schedule(
-                () -> handleTimeout(correlationId),
-                timeoutMs,
-                TimeUnit.MILLISECONDS
-        );
+        // 인자 3개 이상은 레벨과 무관하게 varargs 배열과 박싱이 생기므로 먼저 확인한다
+        if (log.isDebugEnabled()) {
+            log.debug("[txId={}] Sent to session={}, correlationId={}", txId, session.getSessionId(), correlationId);
+        }
 
+        if (hedgePrimary) {
+            scheduleHedge(hedge, session, messageType, body, txId);
+            return hedge.getFuture();
+        }
         return pending.getFuture();
     }
 
+    // 호출자는 반환 후 body를 해제할 수 있으므로 hedge 시점까지 참조를 유지한다
+    private void scheduleHedge(HedgeGroup hedge, UpstreamSession primarySession, MessageType messageType,
+                               ByteBuf body, String txId) {
+        ByteBuf retained = body.retain();
+        timeoutTimer.newTimeout(t -> fireHedge(hedge, primarySession, messageType, retained, txId),
+                hedgePolicy.delayMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * hedge 시점까지 응답이 없으면 다른 세션으로 새 correlationId의 사본을 보낸다.
+     * 세션 slot과 hedge 예산이 모두 있을 때만 보내며, 없으면 원 요청만 기다린다.
+     */
+    private void fireHedge(HedgeGroup hedge, UpstreamSession primarySession, MessageType messageType,
+                           ByteBuf body, String txId) {
+        try {
+            if (hedge.isDone() || hedge.getDeadlineNanos() - System.nanoTime() <= 0) {
+                return;
+            }
+            if (!waitQueue.isEmpty()) {
+                metrics.incrementHedgeSkippedSaturated();
+                return;
+            }
+            UpstreamSession session = reserveHedgeSession(primarySession);
+            if (session == null) {
+                metrics.incrementHedgeSkippedNoSession();
+                return;
+            }
+            if (!hedgePolicy.tryWithdraw()) {
+                releaseSlot(session);
+                metrics.incrementHedgeSkippedBudget();
+                return;
+            }
+
+            hedge.addMember();
+            metrics.incrementHedgeSent();
+            log.debug("[txId={}] No response from session={}, hedging to session={}", txId,
+                    primarySession.getSessionId(), session.getSessionId());
+            CompletableFuture<AuthorizeResponse> sent = sendOnOwner(session, messageType, body, null, txId,
+                    nextCorrelationId(session), null, null, hedge.getDeadlineNanos(), hedge);
+            // 사본의 자체 future는 전송 실패 때만 완료된다 (응답/timeout은 그룹으로 전달)
+            sent.thenAccept(failure -> {
+                if (hedge.tryFail()) {
+                    deliverFailure(hedge.getRelay(), hedge.getFuture(), failure);
+                }
+            });
+        } finally {
+            body.release();
+        }
+    }
+
+    // 원 요청과 다른 세션의 slot을 선점한다
+    private UpstreamSession reserveHedgeSession(UpstreamSession exclude) {
+        GatewayProperties.Upstream upstream = properties.getUpstream();
+        for (int attempt = 0; attempt < upstream.getMaxSessions(); attempt++) {
+            UpstreamSession session = sessionPool.selectSession();
+            if (session == null) {
+                return null;
+            }
+            if (session != exclude
+                    && session.tryReserve(session.getInflightLimit(upstream.getMaxInflightPerSession()))) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    // 대기열 자리는 AdmissionControl이 토큰 발급 시 이미 선점했다
+    private CompletableFuture<AuthorizeResponse> enqueue(MessageType messageType, ByteBuf body, String idempotencyKey,
+                                                         String txId, long correlationId, FrameRelay relay,
+                                                         long deadlineNanos) {
+        int depth = admissionControl.getQueueDepth();
+        metrics.setQueueDepth(depth);
+
+        // 호출자는 반환 후 body를 해제할 수 있으므로 대기 중에는 참조를 유지한다
+        QueuedRequest queued = new QueuedRequest(messageType, body.retain(), idempotencyKey, txId,
+                correlationId, relay, System.nanoTime(), deadlineNanos);
+        waitQueue.offer(queued);
+        // 대기 한도와 호출자 남은 예산 중 먼저 오는 쪽에 만료시킨다
+        long expiryNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(properties.getUpstream().getQueueWaitMaxMs()),
+                Math.max(0, deadlineNanos - System.nanoTime()));
+        queued.setExpiry(timeoutTimer.newTimeout(t -> expireQueued(queued), expiryNanos, TimeUnit.NANOSECONDS));
+
+        log.debug("[txId={}] Queued (depth={})", txId, depth);
+        return queued.getFuture();
+    }
+
+    /**
+     * 세션에 inflight 여유가 생길 때마다 대기열 앞에서부터 전송한다.
+     * 완료/타임아웃/세션 다운으로 slot이 반환된 직후와 새 요청이 대기열에 들어간 직후 호출된다.
+     */
+    private void drainWaitQueue() {
+        int maxInflight = properties.getUpstream().getMaxInflightPerSession();
+        while (!waitQueue.isEmpty()) {
+            UpstreamSession session = sessionPool.selectSession();
+            if (session == null || !session.tryReserve(session.getInflightLimit(maxInflight))) {
+                return;
+            }
+            QueuedRequest queued = waitQueue.poll();
+            if (queued == null) {
+                releaseSlot(session);
+                return;
+            }
+            if (!queued.claim()) {
+                releaseSlot(session);
+                continue; // 이미 만료 처리됨
+            }
+            queued.cancelExpiry();
+            metrics.setQueueDepth(admissionControl.decrementQueue());
+            metrics.recordQueueWait(System.nanoTime() - queued.getEnqueuedAtNanos());
+            if (queued.getDeadlineNanos() - System.nanoTime() <= 0) {
+                // 기다리는 동안 호출자 예산이 끝났다: 선점한 slot을 돌려주고 보내지 않는다
+                releaseSlot(session);
+                queued.getBody().release();
+                metrics.incrementDroppedInQueue();
+                deliverFailure(queued.getRelay(), queued.getFuture(), deadlineExceeded(queued.getTxId(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queued.getEnqueuedAtNanos())));
+                continue;
+            }
+            try {
+                CompletableFuture<AuthorizeResponse> sent = sendOnOwner(session, queued.getMessageType(),
+                        queued.getBody(), queued.getIdempotencyKey(), queued.getTxId(), queued.getCorrelationId(),
+                        queued.getRelay(), null, queued.getDeadlineNanos(), null);
+                // 중계 요청은 결과가 relay로 전달되므로 이어받을 future가 없을 수 있다
+                if (sent != null) {
+                    String sessionId = session.getSessionId();
+                    sent.whenComplete((response, e) -> {
+                        if (e != null) {
+                            log.error("[txId={}] Queued send failed", queued.getTxId(), e);
+                            metrics.incrementError();
+                            queued.getFuture().complete(sendFailed(queued.getTxId(), sessionId));
+                        } else {
+                            queued.getFuture().complete(response);
+                        }
+                    });
+                }
+            } catch (RuntimeException e) {
+                log.error("[txId={}] Failed to send queued request", queued.getTxId(), e);
+                abandonSend(session, queued.getCorrelationId());
+                metrics.incrementError();
+                deliverFailure(queued.getRelay(), queued.getFuture(),
+                        sendFailed(queued.getTxId(), session.getSessionId()));
+            } finally {
+                queued.getBody().release();
+            }
+        }
+    }
+
+    // 전송 도중 예외: pending 등록 뒤였다면 pending과 함께, 아니면 선점한 slot만 반환한다
+    private void abandonSend(UpstreamSession session, long correlationId) {
+        PendingRequest pending = tableFor(correlationId).remove(correlationId);
+        if (pending != null) {
+            pending.cancelTimeout();
+            releaseSession(pending);
+        } else {
+            releaseSlot(session);
+        }
+    }
+
+    private void expireQueued(QueuedRequest queued) {
+        if (!queued.claim()) {
+            return; // 이미 전송됨
+        }
+        metrics.setQueueDepth(admissionControl.decrementQueue());
+        queued.getBody().release();
+
+        long waitedNanos = System.nanoTime() - queued.getEnqueuedAtNanos();
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(waitedNanos);
+        metrics.recordQueueWait(waitedNanos);
+
+        AuthorizeResponse failure;
+        if (queued.getDeadlineNanos() - System.nanoTime() <= 0) {
+            metrics.incrementDroppedInQueue();
+            log.debug("[txId={}] Deadline passed after {}ms in queue, dropping", queued.getTxId(), waitedMs);
+            failure = deadlineExceeded(queued.getTxId(), waitedMs);
+        } else {
+            metrics.incrementBusyReject();
+            log.warn("[txId={}] Waited {}ms in queue without a free slot", queued.getTxId(), waitedMs);
+            failure = new AuthorizeResponse(queued.getTxId(), TransactionStatus.BUSY, "QUEUE_TIMEOUT", waitedMs, null);
+        }
+        deliverFailure(queued.getRelay(), queued.getFuture(), failure);
+
+        // 만료된 항목이 대기열 앞에 남아 있지 않도록 정리한다
+        QueuedRequest head;
+        while ((head = waitQueue.peek()) != null && head.isClaimed()) {
+            waitQueue.remove(head);
+        }
+    }
+
     /**
      * 응답 프레임을 수신하여 pending 요청과 매칭한다.
+     * responseFrame의 body는 호출자(ResponseHandler)가 반환 후 해제하므로 참조를 보관하지 않는다.
      */
-    public void completeRequest(Frame responseFrame) {
-        String correlationId = responseFrame.correlationId();
-        PendingRequest pending = pendingMap.remove(correlationId);
+    public void completeRequest(FrameView responseFrame) {
+        long correlationId = responseFrame.correlationId();
+        PendingRequest pending = tableFor(correlationId).remove(correlationId);
 
         if (pending == null) {
             // late response: timeout 이후 도착
@@ -122,123 +542,216 @@ public class MuxEngine {
             metrics.incrementLateResponse();
             return;
         }
+        pending.cancelTimeout();
 
-        long latencyMs = Duration.between(pending.getCreatedAt(), Instant.now()).toMillis();
+        long now = System.nanoTime();
+        long latencyNanos = now - pending.getCreatedAtNanos();
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
         String sessionId = pending.getSessionId();
+        pending.getSession().recordLatency(latencyNanos);
+        releaseSession(pending);
+        if (responseFrame.messageType() == MessageType.INQUIRY_RES && hedgePolicy.isEnabled()) {
+            hedgePolicy.recordLatency(latencyNanos);
+        }
 
-        // inflight 감소
-        for (UpstreamSession session : sessionPool.getAllSessions()) {
-            if (session.getSessionId().equals(sessionId)) {
-                session.decrementInflight();
-                metrics.setInflight(sessionId, session.getInflightCount());
-                break;
+        FrameRelay relay = pending.getRelay();
+        CompletableFuture<AuthorizeResponse> target = pending.getFuture();
+        HedgeGroup hedge = pending.getHedge();
+        if (hedge != null) {
+            if (!hedge.tryWin()) {
+                // 다른 사본이 먼저 응답했다. slot만 반환하고 버린다 (late response 아님)
+                log.debug("[txId={}] Discarding hedge loser from session={}", pending.getTxId(), sessionId);
+                drainWaitQueue();
+                return;
             }
+            if (!hedge.isPrimary(pending)) {
+                metrics.incrementHedgeWin();
+            }
+            relay = hedge.getRelay();
+            target = hedge.getFuture();
+            // 호출자 기준 지연은 원 요청 전송 시점부터
+            latencyMs = TimeUnit.NANOSECONDS.toMillis(now - hedge.getPrimary().getCreatedAtNanos());
+        }
+
+        if (relay != null) {
+            // 중계 요청은 파싱 없이 원본 바디를 넘긴다
+            metrics.recordLatency(latencyMs);
+            relay.onResponse(responseFrame.messageType(), responseFrame.body());
+            drainWaitQueue();
+            return;
         }
 
         // 응답 파싱
-        TransactionStatus status = parseStatus(responseFrame.body());
-        String reasonCode = parseReasonCode(responseFrame.body());
+        // 응답 형식은 바디 첫 바이트로 구분한다. BINARY는 고정 위치의 바이트만 읽는다.
+        ByteBuf body = responseFrame.body();
+        TransactionStatus status;
+        String reasonCode;
+        try {
+            BodyEncoding encoding = BodyEncoding.of(body);
+            status = encoding.readStatus(body);
+            reasonCode = encoding.readReasonCode(body);
+        } catch (RuntimeException e) {
+            // pending은 이미 제거되고 slot도 반환했으므로 여기서 호출자를 완료하지 않으면 응답을 영영 받지 못한다
+            log.warn("[txId={}] Malformed response body from session={}: {}", pending.getTxId(), sessionId,
+                    e.toString());
+            metrics.incrementError();
+            status = TransactionStatus.ERROR;
+            reasonCode = "MALFORMED_RESPONSE";
+        }
 
         AuthorizeResponse response = new AuthorizeResponse(
                 pending.getTxId(), status, reasonCode, latencyMs, sessionId);
 
         metrics.recordLatency(latencyMs);
 
-        log.debug("[txId={}] Completed: status={}, latency={}ms", pending.getTxId(), status, latencyMs);
+        if (log.isDebugEnabled()) {
+            log.debug("[txId={}] Completed: status={}, latency={}ms", pending.getTxId(), status, latencyMs);
+        }
 
-        pending.getFuture().complete(response);
+        target.complete(response);
+        drainWaitQueue();
     }
 
     /**
      * 세션 disconnection 시 해당 세션의 모든 pending을 fail-fast 처리한다.
+     * 세션이 가진 pending 집합만 순회하므로 비용은 그 세션의 inflight 수에 비례한다.
      */
-    public void failPendingForSession(String sessionId) {
-        pendingMap.forEach((corrId, pending) -> {
-            if (sessionId.equals(pending.getSessionId())) {
-                PendingRequest removed = pendingMap.remove(corrId);
-                if (removed != null) {
-                    long latencyMs = Duration.between(removed.getCreatedAt(), Instant.now()).toMillis();
-                    removed.getFuture().complete(
-                            new AuthorizeResponse(removed.getTxId(), TransactionStatus.ERROR,
-                                    "UPSTREAM_DOWN", latencyMs, sessionId));
-                    metrics.incrementError();
-                }
+    public void failPendingForSession(UpstreamSession session) {
+        String sessionId = session.getSessionId();
+        for (PendingRequest pending : session.getPending()) {
+            // 응답/timeout과 경합하면 테이블에서 먼저 제거한 쪽만 처리한다
+            if (tableFor(pending.getCorrelationId()).remove(pending.getCorrelationId()) != pending) {
+                continue;
             }
-        });
+            pending.cancelTimeout();
+            releaseSession(pending);
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pending.getCreatedAtNanos());
+            if (finish(pending, new AuthorizeResponse(pending.getTxId(), TransactionStatus.ERROR,
+                    "UPSTREAM_DOWN", latencyMs, sessionId))) {
+                metrics.incrementError();
+            }
+        }
+        // 남은 세션에 여유가 있으면 대기 요청을 보낸다
+        drainWaitQueue();
     }
 
     public int getPendingCount() {
-        return pendingMap.size();
+        int count = pendingTable.size();
+        if (shards != null) {
+            for (MuxShard shard : shards) {
+                count += shard.getPendingTable().size();
+            }
+        }
+        return count;
     }
 
-    private void handleTimeout(String correlationId) {
-        PendingRequest pending = pendingMap.remove(correlationId);
+    // 샤딩 모드에서는 세션 루프의 shard 구간에서 발급한다. 대기열 토큰(세션 미정)은 어느 shard여도 응답 라우팅은 맞는다.
+    private long nextCorrelationId(UpstreamSession session) {
+        if (shards == null) {
+            return corrIdGen.nextId();
+        }
+        return shardFor(session).getIdGenerator().nextId();
+    }
+
+    private MuxShard shardFor(UpstreamSession session) {
+        Channel channel = session != null ? session.getChannel() : null;
+        if (channel != null) {
+            EventLoop loop = channel.eventLoop();
+            for (MuxShard shard : shards) {
+                if (shard.getLoop() == loop) {
+                    return shard;
+                }
+            }
+        }
+        return shards[0];
+    }
+
+    // 응답/timeout의 correlationId 구간으로 발급한 shard의 테이블을 찾는다
+    private PendingTable tableFor(long correlationId) {
+        if (shards == null) {
+            return pendingTable;
+        }
+        return shards[CorrelationIdGenerator.shardOf(corrIdGen.getMode(), correlationId, shards.length)]
+                .getPendingTable();
+    }
+
+    private void handleTimeout(long correlationId) {
+        PendingRequest pending = tableFor(correlationId).remove(correlationId);
         if (pending == null) {
             return; // 이미 완료됨
         }
 
-        long latencyMs = Duration.between(pending.getCreatedAt(), Instant.now()).toMillis();
+        long now = System.nanoTime();
+        long elapsedNanos = now - pending.getCreatedAtNanos();
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
         String sessionId = pending.getSessionId();
+        metrics.recordTimeoutLag(now - pending.getDeadlineNanos());
+        // 응답이 없었던 만큼을 지연 샘플로 넣어 느린 세션의 EWMA가 낮게 남지 않게 하고 적응형 한도를 줄인다
+        pending.getSession().recordTimeout(elapsedNanos);
+        releaseSession(pending);
 
-        // inflight 감소
-        for (UpstreamSession session : sessionPool.getAllSessions()) {
-            if (session.getSessionId().equals(sessionId)) {
-                session.decrementInflight();
-                metrics.setInflight(sessionId, session.getInflightCount());
-                break;
-            }
+        log.warn("[txId={}] Timeout after {}ms (correlationId={})", pending.getTxId(), latencyMs, correlationId);
+
+        // hedge 사본 중 하나라도 결과를 낼 수 있으면 호출자 기준 timeout이 아니다
+        if (finish(pending, new AuthorizeResponse(pending.getTxId(), TransactionStatus.TIMEOUT,
+                "REQUEST_TIMEOUT", latencyMs, sessionId))) {
+            metrics.incrementTimeout();
+            metrics.recordLatency(latencyMs);
         }
+        drainWaitQueue();
+    }
 
-        log.warn("[txId={}] Timeout after {}ms (correlationId={})", pending.getTxId(), latencyMs, correlationId);
+    /**
+     * 업스트림 응답 없이 끝난 요청을 완료한다. 중계 요청이면 relay로, 아니면 future로 전달한다.
+     * hedge 그룹이면 다른 사본이 아직 진행 중이거나 이미 결과를 냈을 때 전달하지 않는다.
+     * @return 호출자에게 실패를 전달했으면 true
+     */
+    private boolean finish(PendingRequest pending, AuthorizeResponse response) {
+        HedgeGroup hedge = pending.getHedge();
+        if (hedge != null) {
+            if (!hedge.tryFail()) {
+                return false;
+            }
+            deliverFailure(hedge.getRelay(), hedge.getFuture(), response);
+            return true;
+        }
+        deliverFailure(pending.getRelay(), pending.getFuture(), response);
+        return true;
+    }
 
-        metrics.incrementTimeout();
-        metrics.recordLatency(latencyMs);
+    private static void deliverFailure(FrameRelay relay, CompletableFuture<AuthorizeResponse> future,
+                                       AuthorizeResponse response) {
+        if (relay != null) {
+            relay.onFailure(response);
+        } else {
+            future.complete(response);
+        }
+    }
 
-        pending.getFuture().complete(
-                new AuthorizeResponse(pending.getTxId(), TransactionStatus.TIMEOUT,
-                        "REQUEST_TIMEOUT", latencyMs, sessionId));
+    private static AuthorizeResponse sendFailed(String txId, String sessionId) {
+        return new AuthorizeResponse(txId, TransactionStatus.ERROR, "SEND_FAILED", 0, sessionId);
     }
 
-    private byte[] serializeRequest(AuthorizeRequest request) {
-        // 간이 직렬화: merchantId|amount|currency|clientTxId|payload
-        String data = String.join("|",
-                nullSafe(request.merchantId()),
-                String.valueOf(request.amount()),
-                nullSafe(request.currency()),
-                nullSafe(request.clientTxId()),
-                nullSafe(request.payload()));
-        return data.getBytes(StandardCharsets.UTF_8);
+    private static AuthorizeResponse deadlineExceeded(String txId, long latencyMs) {
+        return new AuthorizeResponse(txId, TransactionStatus.TIMEOUT, "DEADLINE_EXCEEDED", latencyMs, null);
     }
 
-    private TransactionStatus parseStatus(byte[] body) {
-        if (body == null || body.length == 0) {
-            return TransactionStatus.ERROR;
-        }
-        String data = new String(body, StandardCharsets.UTF_8);
-        String[] parts = data.split("\\|", -1);
-        if (parts.length > 0) {
-            try {
-                return TransactionStatus.valueOf(parts[0]);
-            } catch (IllegalArgumentException e) {
-                return TransactionStatus.ERROR;
-            }
+    private static CompletableFuture<AuthorizeResponse> reject(FrameRelay relay, AuthorizeResponse response) {
+        if (relay != null) {
+            relay.onFailure(response);
         }
-        return TransactionStatus.ERROR;
+        return CompletableFuture.completedFuture(response);
     }
 
-    private String parseReasonCode(byte[] body) {
-        if (body == null || body.length == 0) {
-            return "UNKNOWN";
-        }
-        String data = new String(body, StandardCharsets.UTF_8);
-        String[] parts = data.split("\\|", -1);
-        if (parts.length > 1) {
-            return parts[1];
-        }
-        return "OK";
+    // 세션의 pending 인덱스에서 빼고 inflight slot을 반환한다
+    private void releaseSession(PendingRequest pending) {
+        UpstreamSession session = pending.getSession();
+        session.removePending(pending);
+        releaseSlot(session);
     }
 
-    private static String nullSafe(String value) {
-        return value != null ? value : "";
+    private void releaseSlot(UpstreamSession session) {
+        session.decrementInflight();
+        metrics.setInflight(session.getSessionId(), session.getInflightCount());
     }
 }
@@ -0,0 +1,26 @@
+package com.network.gateway.mux;
+
+import com.network.common.protocol.CorrelationIdGenerator;
+import io.netty.channel.EventLoop;
+
+/**
+ * 이벤트 루프 하나가 소유한 mux 상태: pending 테이블과 correlationId 구간.
+ * 이 루프에 붙은 세션의 전송/응답/timeout은 모두 이 루프 스레드에서 처리되므로 테이블 슬롯을 다투는 스레드가 없다.
+ * (세션 다운/대기열 만료처럼 드문 경로는 다른 스레드에서 오지만 테이블은 CAS 기반이라 그대로 안전하다)
+ */
+final class MuxShard {
+
+    private final EventLoop loop;
+    private final PendingTable pendingTable;
+    private final CorrelationIdGenerator idGenerator;
+
+    MuxShard(EventLoop loop, PendingTable pendingTable, CorrelationIdGenerator idGenerator) {
+        this.loop = loop;
+        this.pendingTable = pendingTable;
+        this.idGenerator = idGenerator;
+    }
+
+    EventLoop getLoop() { return loop; }
+    PendingTable getPendingTable() { return pendingTable; }
+    CorrelationIdGenerator getIdGenerator() { return idGenerator; }
+}
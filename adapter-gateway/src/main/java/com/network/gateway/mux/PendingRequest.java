@@ -1,36 +1,76 @@
 package com.network.gateway.mux;
 
 import com.network.common.dto.AuthorizeResponse;
+import com.network.gateway.session.UpstreamSession;
+import io.netty.util.Timeout;
 
-import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 
+/**
+ * 업스트림 응답을 기다리는 요청. 시각은 System.nanoTime() 기준이라 요청마다 Instant를 만들지 않는다.
+ */
 public class PendingRequest {
 
-    private final String correlationId;
+    private final long correlationId;
     private final String txId;
-    private final Instant createdAt;
-    private final Instant deadlineAt;
+    private final long createdAtNanos;
+    private final long deadlineNanos;
+    // 중계 요청은 relay로 결과를 전달하므로 future를 만들지 않는다 (null)
     private final CompletableFuture<AuthorizeResponse> future;
-    private final String sessionId;
+    private final UpstreamSession session;
     private final String idempotencyKey;
+    private final FrameRelay relay;
+    private volatile Timeout timeout;
+    // 샤딩 모드에서 세션 이벤트 루프에 예약한 timeout
+    private volatile ScheduledFuture<?> scheduledTimeout;
+    // hedge 대상(INQUIRY)이면 원 요청과 사본이 공유하는 결과 슬롯
+    private volatile HedgeGroup hedge;
 
-    public PendingRequest(String correlationId, String txId, Instant createdAt,
-                          Instant deadlineAt, String sessionId, String idempotencyKey) {
+    public PendingRequest(long correlationId, String txId, long createdAtNanos,
+                          long deadlineNanos, UpstreamSession session, String idempotencyKey) {
+        this(correlationId, txId, createdAtNanos, deadlineNanos, session, idempotencyKey, null);
+    }
+
+    public PendingRequest(long correlationId, String txId, long createdAtNanos,
+                          long deadlineNanos, UpstreamSession session, String idempotencyKey, FrameRelay relay) {
         this.correlationId = correlationId;
         this.txId = txId;
-        this.createdAt = createdAt;
-        this.deadlineAt = deadlineAt;
-        this.future = new CompletableFuture<>();
-        this.sessionId = sessionId;
+        this.createdAtNanos = createdAtNanos;
+        this.deadlineNanos = deadlineNanos;
+        this.future = relay == null ? new CompletableFuture<>() : null;
+        this.session = session;
         this.idempotencyKey = idempotencyKey;
+        this.relay = relay;
     }
 
-    public String getCorrelationId() { return correlationId; }
+    public long getCorrelationId() { return correlationId; }
     public String getTxId() { return txId; }
-    public Instant getCreatedAt() { return createdAt; }
-    public Instant getDeadlineAt() { return deadlineAt; }
+    public long getCreatedAtNanos() { return createdAtNanos; }
+    public long getDeadlineNanos() { return deadlineNanos; }
     public CompletableFuture<AuthorizeResponse> getFuture() { return future; }
-    public String getSessionId() { return sessionId; }
+    public UpstreamSession getSession() { return session; }
+    public String getSessionId() { return session.getSessionId(); }
     public String getIdempotencyKey() { return idempotencyKey; }
+    public FrameRelay getRelay() { return relay; }
+
+    public void setTimeout(Timeout timeout) { this.timeout = timeout; }
+    public void setTimeout(ScheduledFuture<?> scheduledTimeout) { this.scheduledTimeout = scheduledTimeout; }
+
+    HedgeGroup getHedge() { return hedge; }
+    void setHedge(HedgeGroup hedge) { this.hedge = hedge; }
+
+    /**
+     * 완료/실패 시 타이머 휠(또는 이벤트 루프)에서 timeout을 제거한다. 이미 만료된 경우에는 아무 일도 하지 않는다.
+     */
+    public void cancelTimeout() {
+        Timeout t = timeout;
+        if (t != null) {
+            t.cancel();
+        }
+        ScheduledFuture<?> scheduled = scheduledTimeout;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
 }
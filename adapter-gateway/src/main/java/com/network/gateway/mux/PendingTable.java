@@ -0,0 +1,108 @@
+package com.network.gateway.mux;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * correlationId(long) → PendingRequest 오픈 어드레싱 테이블.
+ *
+ * <p>correlationId는 단조 증가하는 시퀀스이므로 {@code id & mask}로 슬롯에 바로 매핑된다.
+ * 용량을 최대 inflight의 2배 이상(2의 거듭제곱)으로 잡아 두면, 용량만큼 뒤의 id가 아직 살아 있는
+ * 오래된 요청과 겹칠 때만 충돌이 생기고, 그때는 최대 {@link #MAX_PROBE}칸까지 선형 탐색한다.
+ * 삭제 시 tombstone을 남기지 않는 대신 조회도 항상 MAX_PROBE칸까지 본다.
+ *
+ * <p>등록/해제는 슬롯 단위 CAS로만 이루어지며 락이나 박싱된 키, 리사이즈가 없다.
+ */
+public class PendingTable {
+
+    static final int MAX_PROBE = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<PendingRequest> slots;
+    private final int mask;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * @param maxInflight 동시에 pending 가능한 최대 요청 수 (maxSessions * maxInflightPerSession)
+     */
+    public PendingTable(int maxInflight) {
+        if (maxInflight <= 0) {
+            throw new IllegalArgumentException("maxInflight must be positive: " + maxInflight);
+        }
+        int capacity = tableSizeFor((long) maxInflight * 2);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return 등록 성공 시 true, 탐색 범위 내 빈 슬롯이 없으면 false
+     */
+    public boolean put(long correlationId, PendingRequest request) {
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int index = (int) ((correlationId + i) & mask);
+            if (slots.get(index) == null && slots.compareAndSet(index, null, request)) {
+                size.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public PendingRequest remove(long correlationId) {
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int index = (int) ((correlationId + i) & mask);
+            PendingRequest request = slots.get(index);
+            if (request != null && request.getCorrelationId() == correlationId
+                    && slots.compareAndSet(index, request, null)) {
+                size.decrement();
+                return request;
+            }
+        }
+        return null;
+    }
+
+    public PendingRequest get(long correlationId) {
+        for (int i = 0; i < MAX_PROBE; i++) {
+            PendingRequest request = slots.get((int) ((correlationId + i) & mask));
+            if (request != null && request.getCorrelationId() == correlationId) {
+                return request;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 배열을 한 번 순회하며 조건에 맞는 요청을 제거하고 action에 넘긴다.
+     * 동시에 완료된 요청은 CAS에서 밀려 action에 전달되지 않는다.
+     * @return 제거한 요청 수
+     */
+    public int sweep(Predicate<PendingRequest> filter, Consumer<PendingRequest> action) {
+        int removed = 0;
+        for (int index = 0; index < slots.length(); index++) {
+            PendingRequest request = slots.get(index);
+            if (request != null && filter.test(request) && slots.compareAndSet(index, request, null)) {
+                size.decrement();
+                removed++;
+                action.accept(request);
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size.intValue();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private static int tableSizeFor(long n) {
+        if (n >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(MAX_PROBE, Integer.highestOneBit((int) n - 1) << 1);
+    }
+}
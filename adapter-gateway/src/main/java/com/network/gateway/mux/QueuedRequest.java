@@ -0,0 +1,68 @@
+package com.network.gateway.mux;
+
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.protocol.MessageType;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.Timeout;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 모든 세션이 inflight 한도에 있을 때 대기열에 들어간 요청.
+ * 전송(drain)과 대기 만료(expiry)가 경합하므로 {@link #claim()}에 먼저 성공한 쪽만 처리한다.
+ * body는 대기열에 들어갈 때 retain 하고, claim한 쪽이 처리 후 release 한다.
+ */
+class QueuedRequest {
+
+    private final MessageType messageType;
+    private final ByteBuf body;
+    private final String idempotencyKey;
+    private final String txId;
+    private final long correlationId;
+    private final FrameRelay relay;
+    private final long enqueuedAtNanos;
+    private final long deadlineNanos;
+    private final CompletableFuture<AuthorizeResponse> future = new CompletableFuture<>();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile Timeout expiry;
+
+    QueuedRequest(MessageType messageType, ByteBuf body, String idempotencyKey, String txId,
+                  long correlationId, FrameRelay relay, long enqueuedAtNanos, long deadlineNanos) {
+        this.messageType = messageType;
+        this.body = body;
+        this.idempotencyKey = idempotencyKey;
+        this.txId = txId;
+        this.correlationId = correlationId;
+        this.relay = relay;
+        this.enqueuedAtNanos = enqueuedAtNanos;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    MessageType getMessageType() { return messageType; }
+    ByteBuf getBody() { return body; }
+    String getIdempotencyKey() { return idempotencyKey; }
+    String getTxId() { return txId; }
+    long getCorrelationId() { return correlationId; }
+    FrameRelay getRelay() { return relay; }
+    long getEnqueuedAtNanos() { return enqueuedAtNanos; }
+    long getDeadlineNanos() { return deadlineNanos; }
+    CompletableFuture<AuthorizeResponse> getFuture() { return future; }
+
+    void setExpiry(Timeout expiry) { this.expiry = expiry; }
+
+    boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    boolean isClaimed() {
+        return claimed.get();
+    }
+
+    void cancelExpiry() {
+        Timeout t = expiry;
+        if (t != null) {
+            t.cancel();
+        }
+    }
+}
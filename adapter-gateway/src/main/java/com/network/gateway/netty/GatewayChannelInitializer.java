@@ -1,5 +1,6 @@
 package com.network.gateway.netty;
 
+import com.network.gateway.config.GatewayProperties;
 import com.network.gateway.mux.MuxEngine;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
@@ -10,15 +11,17 @@ import org.springframework.stereotype.Component;
 public class GatewayChannelInitializer extends ChannelInitializer<SocketChannel> {
 
     private final MuxEngine muxEngine;
+    private final GatewayProperties properties;
 
-    public GatewayChannelInitializer(@Lazy MuxEngine muxEngine) {
+    public GatewayChannelInitializer(@Lazy MuxEngine muxEngine, GatewayProperties properties) {
         this.muxEngine = muxEngine;
+        this.properties = properties;
     }
 
     @Override
     protected void initChannel(SocketChannel ch) {
         ch.pipeline()
                 .addLast("frameDecoder", new FrameDecoder())
-                .addLast("responseHandler", new ResponseHandler(muxEngine));
+                .addLast("responseHandler", new ResponseHandler(muxEngine, properties.getUpstream().getCorrelationIdMode()));
     }
 }
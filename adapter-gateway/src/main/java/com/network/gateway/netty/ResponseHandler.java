@@ -1,7 +1,8 @@
 package com.network.gateway.netty;
 
-import com.network.common.protocol.Frame;
+import com.network.common.protocol.CorrelationIdMode;
 import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.FrameView;
 import com.network.gateway.mux.MuxEngine;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -14,15 +15,24 @@ import lombok.extern.slf4j.Slf4j;
 public class ResponseHandler extends SimpleChannelInboundHandler<ByteBuf> {
 
     private final MuxEngine muxEngine;
+    private final CorrelationIdMode correlationIdMode;
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+        // msg는 SimpleChannelInboundHandler가 해제하고, 뷰(retained slice)는 여기서 해제한다.
+        FrameView frame = null;
         try {
-            Frame frame = FrameCodec.decode(msg);
-            log.debug("Received response: correlationId={}, type={}", frame.correlationId(), frame.messageType());
+            frame = FrameCodec.decodeRetained(msg, correlationIdMode);
+            if (log.isDebugEnabled()) {
+                log.debug("Received response: correlationId={}, type={}", frame.correlationId(), frame.messageType());
+            }
             muxEngine.completeRequest(frame);
         } catch (Exception e) {
             log.error("Failed to decode response frame", e);
+        } finally {
+            if (frame != null) {
+                frame.release();
+            }
         }
     }
 
@@ -1,28 +1,69 @@
 package com.network.gateway.observability;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Component
 public class GatewayMetrics {
 
+    private static final Path PROC_SELF_IO = Path.of("/proc/self/io");
+
+    private final MeterRegistry registry;
     private final Timer txLatency;
     private final Counter timeoutCounter;
     private final Counter errorCounter;
     private final Counter busyRejectCounter;
     private final Counter lateResponseCounter;
     private final Counter reconnectCounter;
+    private final Timer timeoutLag;
+    private final Timer virtualThreadPinned;
+    private final Counter virtualThreadSubmitFailed;
+    private final Timer queueWait;
+    private final DistributionSummary flushFrames;
+    private final DistributionSummary flushBytes;
+    private final Counter scaleUpCounter;
+    private final Counter scaleDownCounter;
+    private final Counter hedgeEligibleCounter;
+    private final Counter hedgeSentCounter;
+    private final Counter hedgeWinCounter;
+    private final Counter hedgeSkippedSaturated;
+    private final Counter hedgeSkippedNoSession;
+    private final Counter hedgeSkippedBudget;
+    private final Counter droppedAtIngress;
+    private final Counter droppedInQueue;
+    private final Counter droppedAtDispatch;
+    // 세션별로 등록한 게이지. 스케일 다운으로 세션이 사라지면 함께 제거한다.
+    private final Map<String, List<Meter>> sessionMeters = new ConcurrentHashMap<>();
     private final Map<String, AtomicInteger> inflightGauges = new ConcurrentHashMap<>();
     private final AtomicInteger queueDepthValue = new AtomicInteger(0);
 
     public GatewayMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
         this.txLatency = Timer.builder("tx.latency")
                 .description("Transaction end-to-end latency")
                 .publishPercentileHistogram()
@@ -48,11 +89,81 @@ public class GatewayMetrics {
                 .description("Number of session reconnect attempts")
                 .register(registry);
 
+        this.timeoutLag = Timer.builder("timeout.timer.lag")
+                .description("Delay between a request deadline and its timeout firing")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        this.virtualThreadPinned = Timer.builder("vthread.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(registry);
+
+        this.virtualThreadSubmitFailed = Counter.builder("vthread.submit.failed")
+                .description("Virtual thread starts/unparks rejected by the scheduler")
+                .register(registry);
+
+        this.queueWait = Timer.builder("queue.wait")
+                .description("Time requests spent in the admission wait queue")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        this.flushFrames = DistributionSummary.builder("upstream.flush.frames")
+                .description("Frames written per upstream flush")
+                .register(registry);
+
+        this.flushBytes = DistributionSummary.builder("upstream.flush.bytes")
+                .description("Bytes written per upstream flush (approximately per write syscall)")
+                .baseUnit("bytes")
+                .register(registry);
+
+        this.scaleUpCounter = Counter.builder("session.scale.up")
+                .description("Upstream sessions opened by the elastic pool")
+                .register(registry);
+
+        this.scaleDownCounter = Counter.builder("session.scale.down")
+                .description("Upstream sessions drained and closed by the elastic pool")
+                .register(registry);
+
+        this.hedgeEligibleCounter = Counter.builder("hedge.eligible")
+                .description("Requests sent with hedging armed (idempotent inquiries)")
+                .register(registry);
+
+        this.hedgeSentCounter = Counter.builder("hedge.sent")
+                .description("Hedge copies sent to a second session")
+                .register(registry);
+
+        this.hedgeWinCounter = Counter.builder("hedge.win")
+                .description("Hedge copies whose response arrived before the original")
+                .register(registry);
+
+        this.hedgeSkippedSaturated = hedgeSkipped(registry, "saturated");
+        this.hedgeSkippedNoSession = hedgeSkipped(registry, "no_session");
+        this.hedgeSkippedBudget = hedgeSkipped(registry, "budget");
+
+        // 요청마다 registry에서 찾지 않도록 stage별로 미리 등록한다
+        this.droppedAtIngress = droppedBeforeSend(registry, "ingress");
+        this.droppedInQueue = droppedBeforeSend(registry, "queue");
+        this.droppedAtDispatch = droppedBeforeSend(registry, "dispatch");
+
         registry.gauge("queue.depth", queueDepthValue);
     }
 
+    private static Counter hedgeSkipped(MeterRegistry registry, String reason) {
+        return Counter.builder("hedge.skipped")
+                .description("Hedge copies not sent when the hedge delay elapsed")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static Counter droppedBeforeSend(MeterRegistry registry, String stage) {
+        return Counter.builder("tx.dropped.before.send")
+                .description("Requests dropped before being sent upstream because the caller deadline passed")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
     public void recordLatency(long latencyMs) {
-        txLatency.record(Duration.ofMillis(latencyMs));
+        txLatency.record(latencyMs, TimeUnit.MILLISECONDS);
     }
 
     public void incrementTimeout() {
@@ -67,6 +178,23 @@ public class GatewayMetrics {
         busyRejectCounter.increment();
     }
 
+    /**
+     * 호출자 deadline이 지나 업스트림에 보내지 않고 버린 요청 (tx.dropped.before.send, stage=ingress)
+     */
+    public void incrementDroppedAtIngress() {
+        droppedAtIngress.increment();
+    }
+
+    // stage=queue: 대기 큐에 있는 동안 만료된 요청
+    public void incrementDroppedInQueue() {
+        droppedInQueue.increment();
+    }
+
+    // stage=dispatch: 세션에 보내기 직전에 만료된 요청
+    public void incrementDroppedAtDispatch() {
+        droppedAtDispatch.increment();
+    }
+
     public void incrementLateResponse() {
         lateResponseCounter.increment();
     }
@@ -75,6 +203,213 @@ public class GatewayMetrics {
         reconnectCounter.increment();
     }
 
+    public void recordTimeoutLag(long lagNanos) {
+        timeoutLag.record(Math.max(0, lagNanos), TimeUnit.NANOSECONDS);
+    }
+
+    public void registerTimeoutWheelGauge(Supplier<Number> pendingTimeouts) {
+        Gauge.builder("timeout.wheel.pending", pendingTimeouts)
+                .description("Timeouts currently scheduled on the hashed wheel")
+                .register(registry);
+    }
+
+    public void recordVirtualThreadPinned(Duration duration) {
+        virtualThreadPinned.record(duration);
+    }
+
+    public void incrementVirtualThreadSubmitFailed() {
+        virtualThreadSubmitFailed.increment();
+    }
+
+    public void registerCarrierParallelismGauge(int parallelism) {
+        Gauge.builder("vthread.scheduler.parallelism", () -> parallelism)
+                .description("Carrier threads available to the virtual thread scheduler")
+                .register(registry);
+    }
+
+    public void recordQueueWait(long waitNanos) {
+        queueWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFlush(int frames, long bytes) {
+        flushFrames.record(frames);
+        flushBytes.record(bytes);
+    }
+
+    public void registerOutboundGauges(String sessionId, Supplier<Number> bufferedBytes, Supplier<Number> writable) {
+        addSessionMeter(sessionId, Gauge.builder("session.outbound.buffered.bytes", bufferedBytes)
+                .description("Outbound bytes queued in the session channel but not yet written to the socket")
+                .tag("sessionId", sessionId)
+                .baseUnit("bytes")
+                .register(registry));
+        addSessionMeter(sessionId, Gauge.builder("session.writable", writable)
+                .description("1 if the session channel is below its write buffer high water mark")
+                .tag("sessionId", sessionId)
+                .register(registry));
+    }
+
+    public void registerLatencyGauges(String sessionId, Supplier<Number> ewmaMs, Supplier<Number> p99Ms) {
+        addSessionMeter(sessionId, Gauge.builder("session.latency.ewma", ewmaMs)
+                .description("Exponentially weighted moving average of upstream response latency per session")
+                .tag("sessionId", sessionId)
+                .baseUnit("milliseconds")
+                .register(registry));
+        addSessionMeter(sessionId, Gauge.builder("session.latency.p99", p99Ms)
+                .description("Approximate p99 upstream response latency per session (power-of-two ms buckets)")
+                .tag("sessionId", sessionId)
+                .baseUnit("milliseconds")
+                .register(registry));
+    }
+
+    public void registerInflightLimitGauge(String sessionId, Supplier<Number> limit) {
+        addSessionMeter(sessionId, Gauge.builder("session.inflight.limit", limit)
+                .description("Current inflight limit per session (adaptive when enabled, else the configured maximum)")
+                .tag("sessionId", sessionId)
+                .register(registry));
+    }
+
+    /**
+     * 닫힌 세션의 게이지를 제거한다. 같은 sessionId로 새 세션이 열리면 새 세션 기준으로 다시 등록된다.
+     */
+    public void removeSessionMeters(String sessionId) {
+        List<Meter> meters = sessionMeters.remove(sessionId);
+        if (meters != null) {
+            meters.forEach(registry::remove);
+        }
+    }
+
+    private void addSessionMeter(String sessionId, Meter meter) {
+        sessionMeters.computeIfAbsent(sessionId, id -> new CopyOnWriteArrayList<>()).add(meter);
+    }
+
+    /**
+     * 사용 중인 transport(type 태그, 값 1)와 프로세스의 누적 read/write 계열 syscall 수(/proc/self/io의 syscr/syscw).
+     * 같은 부하를 transport별로 돌려 p99와 syscall 증가분을 비교하는 용도다.
+     * epoll_wait/io_uring_enter 같은 대기·제출 syscall은 포함되지 않으므로 정확한 분포는 strace -c나 perf trace로 본다.
+     * /proc/self/io가 없는 환경(Linux 외)에서는 syscall 카운터를 등록하지 않는다.
+     */
+    public void registerTransportMeters(String transport) {
+        Gauge.builder("netty.transport", () -> 1)
+                .description("Netty transport used by upstream sessions and ingress servers")
+                .tag("type", transport)
+                .register(registry);
+
+        if (!Files.isReadable(PROC_SELF_IO)) {
+            return;
+        }
+        FunctionCounter.builder("process.syscalls", "syscr", GatewayMetrics::readProcIo)
+                .description("Read-family syscalls issued by the gateway process")
+                .tag("op", "read")
+                .register(registry);
+        FunctionCounter.builder("process.syscalls", "syscw", GatewayMetrics::readProcIo)
+                .description("Write-family syscalls issued by the gateway process")
+                .tag("op", "write")
+                .register(registry);
+    }
+
+    // /proc/self/io에서 "key: value" 줄의 값. 읽을 수 없으면 NaN (카운터가 값을 건너뛴다)
+    private static double readProcIo(String key) {
+        try {
+            for (String line : Files.readAllLines(PROC_SELF_IO)) {
+                if (line.startsWith(key + ":")) {
+                    return Long.parseLong(line.substring(key.length() + 1).trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // 아래에서 NaN
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * 채널 allocator의 메모리 사용량과 (풀링이면) arena 통계.
+     * Netty는 스레드 캐시 적중 수를 노출하지 않는다. arena 할당 수는 스레드 캐시에서 못 꺼낸 할당만 세므로
+     * 요청 수 대비 netty.allocator.arena.allocations 증가분이 작을수록 캐시가 잘 맞는 것이다.
+     */
+    public void registerAllocatorMeters(ByteBufAllocator allocator) {
+        if (!(allocator instanceof ByteBufAllocatorMetricProvider provider)) {
+            return;
+        }
+        ByteBufAllocatorMetric metric = provider.metric();
+        Gauge.builder("netty.allocator.memory.used", metric, ByteBufAllocatorMetric::usedDirectMemory)
+                .description("Memory reserved by the channel allocator")
+                .tag("type", "direct")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("netty.allocator.memory.used", metric, ByteBufAllocatorMetric::usedHeapMemory)
+                .description("Memory reserved by the channel allocator")
+                .tag("type", "heap")
+                .baseUnit("bytes")
+                .register(registry);
+
+        if (!(metric instanceof PooledByteBufAllocatorMetric pooled)) {
+            return;
+        }
+        registerArenaMeters("direct", pooled, PooledByteBufAllocatorMetric::directArenas);
+        registerArenaMeters("heap", pooled, PooledByteBufAllocatorMetric::heapArenas);
+        Gauge.builder("netty.allocator.thread.caches", pooled, PooledByteBufAllocatorMetric::numThreadLocalCaches)
+                .description("Thread-local caches attached to the pooled allocator")
+                .register(registry);
+    }
+
+    private void registerArenaMeters(String type, PooledByteBufAllocatorMetric pooled,
+                                     Function<PooledByteBufAllocatorMetric, List<PoolArenaMetric>> arenas) {
+        Gauge.builder("netty.allocator.active.allocations", pooled,
+                        m -> arenas.apply(m).stream().mapToLong(PoolArenaMetric::numActiveAllocations).sum())
+                .description("Pooled buffers currently allocated from the arenas and not yet released")
+                .tag("type", type)
+                .register(registry);
+        FunctionCounter.builder("netty.allocator.arena.allocations", pooled,
+                        m -> arenas.apply(m).stream().mapToLong(PoolArenaMetric::numAllocations).sum())
+                .description("Allocations served by the arenas (thread-local cache misses)")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    public void registerPoolSizeGauges(Supplier<Number> sessions, Supplier<Number> activeSessions) {
+        Gauge.builder("session.pool.size", sessions)
+                .description("Upstream sessions in the pool (connecting, connected or draining)")
+                .register(registry);
+        Gauge.builder("session.pool.active", activeSessions)
+                .description("Upstream sessions currently accepting new requests")
+                .register(registry);
+    }
+
+    public void incrementHedgeEligible() {
+        hedgeEligibleCounter.increment();
+    }
+
+    public void incrementHedgeSent() {
+        hedgeSentCounter.increment();
+    }
+
+    public void incrementHedgeWin() {
+        hedgeWinCounter.increment();
+    }
+
+    // reason=saturated: 대기 큐에 요청이 있어 사본으로 slot을 쓰지 않는다
+    public void incrementHedgeSkippedSaturated() {
+        hedgeSkippedSaturated.increment();
+    }
+
+    // reason=no_session: 원 요청과 다른 세션에 빈 slot이 없다
+    public void incrementHedgeSkippedNoSession() {
+        hedgeSkippedNoSession.increment();
+    }
+
+    // reason=budget: hedge 예산 토큰이 없다
+    public void incrementHedgeSkippedBudget() {
+        hedgeSkippedBudget.increment();
+    }
+
+    public void incrementScaleUp() {
+        scaleUpCounter.increment();
+    }
+
+    public void incrementScaleDown() {
+        scaleDownCounter.increment();
+    }
+
     public void setInflight(String sessionId, int count) {
         inflightGauges.computeIfAbsent(sessionId, id -> new AtomicInteger(0)).set(count);
     }
@@ -2,14 +2,21 @@ package com.network.gateway.observability;
 
 import com.network.common.dto.AuthorizeResponse;
 import com.network.common.dto.TransactionStatus;
+import com.network.gateway.config.GatewayProperties;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 @Slf4j
+@RequiredArgsConstructor
 @Component
 public class TransactionLogger {
 
+    private final GatewayProperties properties;
+
     public void logRequest(String txId, String correlationId, String merchantId, String idempotencyKey) {
         MDC.put("txId", txId);
         MDC.put("correlationId", correlationId);
@@ -20,21 +27,25 @@ public class TransactionLogger {
         log.info("Transaction started");
     }
 
+    /**
+     * 응답 완료 로그. future를 완료한 스레드(이벤트 루프, 타임아웃 타이머)에서 불리므로 MDC를 쓰지 않고
+     * 필드를 structured argument로 넘긴다 (LogstashEncoder가 MDC 키와 같은 이름의 JSON 필드로 쓴다).
+     * 저할당 모드에서는 승인 건을 DEBUG로 내려 꺼져 있으면 요청당 로그 이벤트와 인자를 만들지 않는다.
+     */
     public void logResponse(AuthorizeResponse response) {
-        MDC.put("txId", response.txId());
-        MDC.put("status", response.status().name());
-        MDC.put("latencyMs", String.valueOf(response.latencyMs()));
-        if (response.upstreamSessionId() != null) {
-            MDC.put("sessionId", response.upstreamSessionId());
+        if (response.status() != TransactionStatus.APPROVED) {
+            log.warn("Transaction completed: {} (reason={})", response.status(), response.reasonCode(),
+                    kv("txId", response.txId()), kv("latencyMs", response.latencyMs()),
+                    kv("sessionId", response.upstreamSessionId()));
+        } else if (!properties.getUpstream().isLowAllocation()) {
+            log.info("Transaction completed: {}", response.status(),
+                    kv("txId", response.txId()), kv("latencyMs", response.latencyMs()),
+                    kv("sessionId", response.upstreamSessionId()));
+        } else if (log.isDebugEnabled()) {
+            log.debug("Transaction completed: {}", response.status(),
+                    kv("txId", response.txId()), kv("latencyMs", response.latencyMs()),
+                    kv("sessionId", response.upstreamSessionId()));
         }
-
-        if (response.status() == TransactionStatus.APPROVED) {
-            log.info("Transaction completed: {}", response.status());
-        } else {
-            log.warn("Transaction completed: {} (reason={})", response.status(), response.reasonCode());
-        }
-
-        MDC.clear();
     }
 
     public void logBusyReject(String reason) {
@@ -0,0 +1,76 @@
+package com.network.gateway.observability;
+
+import com.network.gateway.config.GatewayProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 가상 스레드 모드(spring.threads.virtual.enabled=true, "virtual" 프로파일)에서
+ * JFR 이벤트 스트림으로 carrier pinning을 수집해 메트릭으로 내보낸다.
+ * vthread.pinned 누적 시간 / (구간 길이 × vthread.scheduler.parallelism)이 pinning으로 잃은 carrier 비율이다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    private final GatewayProperties properties;
+    private final GatewayMetrics metrics;
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        long thresholdMs = properties.getVirtualThreads().getPinnedThresholdMs();
+        metrics.registerCarrierParallelismGauge(carrierParallelism());
+
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        recordingStream.enable(SUBMIT_FAILED_EVENT);
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.onEvent(SUBMIT_FAILED_EVENT, event -> metrics.incrementVirtualThreadSubmitFailed());
+        recordingStream.startAsync();
+
+        log.info("Virtual thread monitor started: pinnedThreshold={}ms, carriers={}", thresholdMs, carrierParallelism());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        metrics.recordVirtualThreadPinned(event.getDuration());
+        if (log.isDebugEnabled() && event.getStackTrace() != null) {
+            // park 지점(JDK 내부)이 아니라 pinning을 일으킨 애플리케이션 프레임을 찾는다
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                String type = frame.getMethod().getType().getName();
+                if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                    log.debug("Virtual thread pinned for {}ms at {}.{}:{}", event.getDuration().toMillis(),
+                            type, frame.getMethod().getName(), frame.getLineNumber());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int carrierParallelism() {
+        String configured = System.getProperty("jdk.virtualThreadScheduler.parallelism");
+        return configured != null ? Integer.parseInt(configured) : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,72 @@
+package com.network.gateway.session;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 세션 하나의 inflight 한도를 응답 지연으로 조절한다 (AIMD).
+ * <ul>
+ *   <li>timeout 또는 지연이 임계치를 넘으면 한도 × backoffRatio (왕복 한 번에 한 번만)</li>
+ *   <li>정상 응답이고 한도의 절반 이상을 쓰고 있으면 한도 + 1</li>
+ * </ul>
+ * 업스트림이 느려지면 업스트림 안에 쌓이는 요청 수를 줄여 지연이 requestTimeout까지 불어나기 전에
+ * admission 단계에서 빨리 거절/대기시키고, 회복되면 다시 천천히 늘린다.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger limit;
+    private volatile long lastDecreaseNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdNanos, System::nanoTime);
+    }
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos,
+                LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("invalid limit bounds: min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1): " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.nanoClock = nanoClock;
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+    }
+
+    /**
+     * 응답/timeout 하나를 반영한다.
+     * @param rttNanos 요청 전송부터 응답(또는 timeout)까지
+     * @param inflight 샘플 시점 세션 inflight (이 요청 포함)
+     * @param dropped  timeout이면 true
+     */
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped || rttNanos > latencyThresholdNanos) {
+            long now = nanoClock.getAsLong();
+            // 같은 혼잡 구간에서 돌아온 응답마다 줄이면 순식간에 하한까지 떨어지므로 왕복 한 번에 한 번만 줄인다
+            if (now - lastDecreaseNanos < rttNanos) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            return;
+        }
+        // 한도를 다 쓰지 않는 동안에는 늘리지 않는다 (유휴 상태에서 한도만 커지는 것 방지)
+        if (inflight * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+}
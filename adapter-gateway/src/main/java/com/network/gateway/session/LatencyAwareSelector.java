@@ -0,0 +1,22 @@
+package com.network.gateway.session;
+
+/**
+ * power of two choices에서 두 세션을 inflight 대신 예상 완료 시간 (inflight + 1) × 지연 EWMA로 비교한다.
+ * 느린 경로(NIC 큐, 중간 장비)의 세션은 inflight가 같아도 덜 받는다.
+ * 한쪽이라도 아직 지연 샘플이 없으면 inflight로 비교해 새로 연결된 세션도 트래픽을 받아 측정되게 한다.
+ */
+public class LatencyAwareSelector extends PowerOfTwoChoicesSelector {
+
+    @Override
+    protected UpstreamSession better(UpstreamSession a, UpstreamSession b) {
+        long latencyA = a.getLatencyEwmaNanos();
+        long latencyB = b.getLatencyEwmaNanos();
+        if (latencyA == 0 || latencyB == 0) {
+            return super.better(a, b);
+        }
+        // double로 곱해 inflight × ns 곱의 overflow를 피한다
+        double costA = (a.getInflightCount() + 1) * (double) latencyA;
+        double costB = (b.getInflightCount() + 1) * (double) latencyB;
+        return costA <= costB ? a : b;
+    }
+}
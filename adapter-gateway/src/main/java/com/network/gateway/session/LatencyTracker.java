@@ -0,0 +1,123 @@
+package com.network.gateway.session;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 세션 하나의 응답 지연 통계. EWMA와 2의 거듭제곱 ms 구간으로 나눈 작은 히스토그램을 락 없이 갱신한다.
+ * 응답 스레드(이벤트 루프/타이머)에서 기록하고 요청 스레드에서 읽는다.
+ *
+ * <p>히스토그램은 windowMs마다 새로 모으고 분위수는 직전 구간 + 현재 구간만 본다.
+ * 오래전의 느린 구간이 분위수에 계속 남지 않고, 샘플이 끊기면 두 구간 뒤에는 비어 0이 된다.
+ */
+public class LatencyTracker {
+
+    // 버킷 i는 (2^(i-1), 2^i] ms, 0번은 1ms 이하, 마지막 버킷은 나머지 전부
+    static final int BUCKETS = 16;
+    public static final long DEFAULT_WINDOW_MS = 10_000;
+
+    private final double alpha;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong ewmaNanos = new AtomicLong();
+    private final AtomicLong windowStartNanos;
+    private volatile AtomicLongArray currentWindow = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previousWindow = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param alpha 새 샘플 가중치 (0, 1]. 클수록 최근 지연에 빨리 반응한다.
+     */
+    public LatencyTracker(double alpha) {
+        this(alpha, DEFAULT_WINDOW_MS);
+    }
+
+    public LatencyTracker(double alpha, long windowMs) {
+        this(alpha, windowMs, System::nanoTime);
+    }
+
+    LatencyTracker(double alpha, long windowMs, LongSupplier nanoClock) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]: " + alpha);
+        }
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("windowMs must be positive: " + windowMs);
+        }
+        this.alpha = alpha;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.nanoClock = nanoClock;
+        this.windowStartNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    public void record(long latencyNanos) {
+        long sample = Math.max(0, latencyNanos);
+        long current;
+        long next;
+        do {
+            current = ewmaNanos.get();
+            // 첫 샘플은 그대로 쓴다 (0에서 천천히 올라가며 과소평가되지 않도록)
+            next = current == 0 ? Math.max(1, sample) : current + (long) ((sample - current) * alpha);
+        } while (!ewmaNanos.compareAndSet(current, next));
+
+        rotateIfExpired();
+        currentWindow.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMillis(sample)));
+    }
+
+    /**
+     * @return 지연 EWMA (ns). 아직 샘플이 없으면 0
+     */
+    public long getEwmaNanos() {
+        return ewmaNanos.get();
+    }
+
+    /**
+     * 히스토그램 기준 분위수의 상한 (ms). 구간 단위라 근사값이다. 샘플이 없으면 0.
+     */
+    public long quantileMillis(double quantile) {
+        rotateIfExpired();
+        AtomicLongArray recent = currentWindow;
+        AtomicLongArray older = previousWindow;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += recent.get(i) + older.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        // 0.99 * 100 = 99.00000000000001 처럼 부동소수 오차로 순위가 하나 밀리지 않게 한다
+        long rank = Math.max(1, (long) Math.ceil(quantile * total - 1e-9));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += recent.get(i) + older.get(i);
+            if (seen >= rank) {
+                return upperBoundMillis(i);
+            }
+        }
+        return upperBoundMillis(BUCKETS - 1);
+    }
+
+    // 회전은 CAS에 이긴 스레드 하나만 한다. 교체 순간 읽는 쪽이 샘플 몇 개를 중복/누락해 볼 뿐이다
+    private void rotateIfExpired() {
+        long now = nanoClock.getAsLong();
+        long start = windowStartNanos.get();
+        long elapsed = now - start;
+        if (elapsed < windowNanos || !windowStartNanos.compareAndSet(start, now)) {
+            return;
+        }
+        // 두 구간 넘게 비어 있었으면 현재 구간도 이미 오래된 것이다
+        previousWindow = elapsed < 2 * windowNanos ? currentWindow : new AtomicLongArray(BUCKETS);
+        currentWindow = new AtomicLongArray(BUCKETS);
+    }
+
+    static int bucketOf(long millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis - 1));
+    }
+
+    static long upperBoundMillis(int bucket) {
+        return 1L << bucket;
+    }
+}
@@ -0,0 +1,25 @@
+package com.network.gateway.session;
+
+/**
+ * 전체 세션 중 inflight가 가장 적은 세션 (기존 동작).
+ * 세션 수에 비례해 훑고, 동시에 들어온 요청이 모두 같은 세션으로 몰린다(herding).
+ */
+public class LeastLoadedSelector implements SessionSelector {
+
+    @Override
+    public UpstreamSession select(UpstreamSession[] candidates, int maxInflight) {
+        UpstreamSession best = null;
+        int bestInflight = Integer.MAX_VALUE;
+        for (UpstreamSession session : candidates) {
+            if (!SessionSelector.isAvailable(session)) {
+                continue;
+            }
+            int inflight = session.getInflightCount();
+            if (inflight < bestInflight) {
+                best = session;
+                bestInflight = inflight;
+            }
+        }
+        return best;
+    }
+}
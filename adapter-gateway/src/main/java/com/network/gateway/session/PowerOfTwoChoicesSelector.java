@@ -0,0 +1,68 @@
+package com.network.gateway.session;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 무작위로 고른 두 세션 중 inflight가 적은 쪽 (power of two choices).
+ * 세션 수와 무관하게 두 개만 보고, 스레드마다 다른 쌍을 보므로 한 세션으로 몰리지 않는다.
+ * 둘 다 쓸 수 없거나 inflight 한도에 찼을 때만 전체를 훑어 여유 있는 세션을 찾는다.
+ * (한도인 세션을 돌려주면 slot 선점이 실패해 빈 slot이 있어도 대기열 drain이 멈춘다)
+ */
+public class PowerOfTwoChoicesSelector implements SessionSelector {
+
+    @Override
+    public UpstreamSession select(UpstreamSession[] candidates, int maxInflight) {
+        int n = candidates.length;
+        if (n == 0) {
+            return null;
+        }
+        if (n == 1) {
+            return SessionSelector.isAvailable(candidates[0]) ? candidates[0] : null;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(n);
+        int second = random.nextInt(n - 1);
+        if (second >= first) {
+            second++; // 서로 다른 두 세션
+        }
+        UpstreamSession a = candidates[first];
+        UpstreamSession b = candidates[second];
+        boolean aAvailable = SessionSelector.isAvailable(a);
+        boolean bAvailable = SessionSelector.isAvailable(b);
+        boolean aRoom = aAvailable && SessionSelector.hasRoom(a, maxInflight);
+        boolean bRoom = bAvailable && SessionSelector.hasRoom(b, maxInflight);
+        if (aRoom && bRoom) {
+            return better(a, b);
+        }
+        if (aRoom) {
+            return a;
+        }
+        if (bRoom) {
+            return b;
+        }
+
+        // 둘 다 한도이거나 쓸 수 없다: 여유 있는 세션을 찾아 훑고, 없으면 한도인 세션이라도 돌려준다
+        UpstreamSession full = aAvailable && bAvailable ? better(a, b) : aAvailable ? a : bAvailable ? b : null;
+        for (int i = 1; i < n; i++) {
+            UpstreamSession session = candidates[(first + i) % n];
+            if (!SessionSelector.isAvailable(session)) {
+                continue;
+            }
+            if (SessionSelector.hasRoom(session, maxInflight)) {
+                return session;
+            }
+            if (full == null) {
+                full = session;
+            }
+        }
+        return full;
+    }
+
+    /**
+     * 둘 다 쓸 수 있을 때 어느 쪽으로 보낼지. 기본은 inflight가 적은 쪽.
+     */
+    protected UpstreamSession better(UpstreamSession a, UpstreamSession b) {
+        return a.getInflightCount() <= b.getInflightCount() ? a : b;
+    }
+}
@@ -0,0 +1,35 @@
+package com.network.gateway.session;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 순서대로 돌아가며 고르되, 쓸 수 없거나 inflight 한도에 찬 세션은 건너뛴다.
+ * 모든 쓰기 가능한 세션이 한도면 처음 만난 쓰기 가능한 세션을 돌려준다 (대기열 판단은 AdmissionControl 몫).
+ */
+public class RoundRobinSelector implements SessionSelector {
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Override
+    public UpstreamSession select(UpstreamSession[] candidates, int maxInflight) {
+        int n = candidates.length;
+        if (n == 0) {
+            return null;
+        }
+        int start = Math.floorMod(cursor.getAndIncrement(), n);
+        UpstreamSession full = null;
+        for (int i = 0; i < n; i++) {
+            UpstreamSession session = candidates[(start + i) % n];
+            if (!SessionSelector.isAvailable(session)) {
+                continue;
+            }
+            if (SessionSelector.hasRoom(session, maxInflight)) {
+                return session;
+            }
+            if (full == null) {
+                full = session;
+            }
+        }
+        return full;
+    }
+}
@@ -0,0 +1,43 @@
+package com.network.gateway.session;
+
+/**
+ * gateway.upstream.session-selection 설정값.
+ * <ul>
+ *   <li>LEAST_LOADED: 전체 중 inflight 최소 (세션이 적을 때)</li>
+ *   <li>POWER_OF_TWO_CHOICES: 무작위 두 세션 중 inflight 최소 (기본값)</li>
+ *   <li>ROUND_ROBIN: 순환, 한도/쓰기 불가 세션은 건너뜀</li>
+ *   <li>LATENCY_AWARE: 무작위 두 세션 중 예상 완료 시간((inflight + 1) × 지연 EWMA) 최소</li>
+ * </ul>
+ */
+public enum SessionSelection {
+
+    LEAST_LOADED {
+        @Override
+        public SessionSelector create() {
+            return new LeastLoadedSelector();
+        }
+    },
+
+    POWER_OF_TWO_CHOICES {
+        @Override
+        public SessionSelector create() {
+            return new PowerOfTwoChoicesSelector();
+        }
+    },
+
+    ROUND_ROBIN {
+        @Override
+        public SessionSelector create() {
+            return new RoundRobinSelector();
+        }
+    },
+
+    LATENCY_AWARE {
+        @Override
+        public SessionSelector create() {
+            return new LatencyAwareSelector();
+        }
+    };
+
+    public abstract SessionSelector create();
+}
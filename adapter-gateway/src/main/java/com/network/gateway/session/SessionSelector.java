@@ -0,0 +1,29 @@
+package com.network.gateway.session;
+
+/**
+ * 요청을 보낼 세션을 고르는 전략.
+ * 후보 배열은 연결된 세션의 스냅샷이라 고르는 사이에 끊기거나 버퍼가 찰 수 있으므로 구현체는 {@link #isAvailable}로 다시 확인한다.
+ *
+ * <p>쓰기 가능한 세션이 하나라도 있으면 inflight 한도에 찼더라도 null 대신 그 세션을 돌려준다.
+ * slot 선점(CAS)은 AdmissionControl이 하고, 실패하면 다시 고르거나 대기열로 보낸다.
+ */
+public interface SessionSelector {
+
+    /**
+     * @param candidates  연결된 세션 스냅샷 (읽기 전용, 비어 있을 수 있음)
+     * @param maxInflight 세션당 설정 inflight 한도 (적응형 한도는 {@link UpstreamSession#getInflightLimit}로 적용)
+     * @return 선택된 세션, 쓰기 가능한 세션이 없으면 null
+     */
+    UpstreamSession select(UpstreamSession[] candidates, int maxInflight);
+
+    static boolean isAvailable(UpstreamSession session) {
+        return session.isActive() && session.isWritable();
+    }
+
+    /**
+     * inflight가 세션의 (적응형) 한도 아래인지. 선점 전 힌트일 뿐이라 CAS에서 실패할 수 있다.
+     */
+    static boolean hasRoom(UpstreamSession session, int maxInflight) {
+        return session.getInflightCount() < session.getInflightLimit(maxInflight);
+    }
+}
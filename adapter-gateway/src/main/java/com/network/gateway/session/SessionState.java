@@ -3,5 +3,7 @@ package com.network.gateway.session;
 public enum SessionState {
     CONNECTED,
     DEGRADED,
+    // 스케일 다운 대상: 새 요청은 받지 않고 보낸 요청의 응답만 기다린다
+    DRAINING,
     DOWN
 }
@@ -1,26 +1,64 @@
 package com.network.gateway.session;
 
-import com.network.common.protocol.Frame;
+import com.network.common.netty.CoalescingWriter;
+import com.network.common.protocol.CorrelationIdMode;
 import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.mux.PendingRequest;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 @Slf4j
 public class UpstreamSession {
 
+    public static final double DEFAULT_LATENCY_ALPHA = 0.2;
+
     private final String sessionId;
+    private final CorrelationIdMode correlationIdMode;
     private final AtomicReference<Channel> channel = new AtomicReference<>();
     private final AtomicInteger inflightCount = new AtomicInteger(0);
     private final AtomicReference<SessionState> state = new AtomicReference<>(SessionState.DOWN);
     private final AtomicInteger reconnectAttempts = new AtomicInteger(0);
     private volatile Throwable lastError;
+    // 이 세션으로 전송된 pending 요청. disconnect 시 전역 테이블 대신 이 집합만 훑는다.
+    private final Set<PendingRequest> pending = ConcurrentHashMap.newKeySet();
+    // 연결마다 새 writer를 만든다. null이면 프레임마다 writeAndFlush 한다.
+    private final Function<Channel, CoalescingWriter> writerFactory;
+    private volatile CoalescingWriter writer;
+    // 응답 지연 EWMA/구간 히스토그램. 재연결 후에도 유지한다 (같은 경로일 가능성이 높음)
+    private final LatencyTracker latency;
+    // 적응형 inflight 한도. null이면 설정값(maxInflightPerSession) 고정.
+    private volatile AimdLimiter limiter;
+
+    public UpstreamSession(String sessionId, CorrelationIdMode correlationIdMode) {
+        this(sessionId, correlationIdMode, null);
+    }
+
+    public UpstreamSession(String sessionId, CorrelationIdMode correlationIdMode,
+                           Function<Channel, CoalescingWriter> writerFactory) {
+        this(sessionId, correlationIdMode, writerFactory, DEFAULT_LATENCY_ALPHA);
+    }
+
+    public UpstreamSession(String sessionId, CorrelationIdMode correlationIdMode,
+                           Function<Channel, CoalescingWriter> writerFactory, double latencyAlpha) {
+        this(sessionId, correlationIdMode, writerFactory, latencyAlpha, LatencyTracker.DEFAULT_WINDOW_MS);
+    }
 
-    public UpstreamSession(String sessionId) {
+    public UpstreamSession(String sessionId, CorrelationIdMode correlationIdMode,
+                           Function<Channel, CoalescingWriter> writerFactory, double latencyAlpha,
+                           long latencyWindowMs) {
         this.sessionId = sessionId;
+        this.correlationIdMode = correlationIdMode;
+        this.writerFactory = writerFactory;
+        this.latency = new LatencyTracker(latencyAlpha, latencyWindowMs);
     }
 
     public String getSessionId() {
@@ -39,6 +77,29 @@ public class UpstreamSession {
         return inflightCount.get();
     }
 
+    /**
+     * inflight가 limit 미만일 때만 CAS로 1 증가시킨다. 확인과 증가 사이에 다른 스레드가 끼어들 수 없다.
+     * 선점 직후 세션이 CONNECTED가 아니면(drain/끊김) 되돌린다. drain 쪽은 상태를 바꾼 뒤 inflight 0을 확인하므로
+     * 둘 중 하나는 반드시 상대를 본다.
+     * @return slot을 얻었으면 true
+     */
+    public boolean tryReserve(int limit) {
+        while (true) {
+            int current = inflightCount.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflightCount.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        if (state.get() != SessionState.CONNECTED) {
+            inflightCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
     public int incrementInflight() {
         return inflightCount.incrementAndGet();
     }
@@ -47,6 +108,60 @@ public class UpstreamSession {
         return inflightCount.decrementAndGet();
     }
 
+    public void setLimiter(AimdLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * 지금 이 세션에 허용되는 inflight 수. 적응형 한도가 있으면 그 값, 설정 한도를 넘지는 않는다.
+     */
+    public int getInflightLimit(int configuredLimit) {
+        AimdLimiter l = limiter;
+        return l != null ? Math.min(configuredLimit, l.getLimit()) : configuredLimit;
+    }
+
+    /**
+     * 요청 하나의 응답 지연을 기록한다. 응답 처리 스레드에서 inflight 반환 전에 호출된다.
+     */
+    public void recordLatency(long latencyNanos) {
+        latency.record(latencyNanos);
+        AimdLimiter l = limiter;
+        if (l != null) {
+            l.onSample(latencyNanos, inflightCount.get(), false);
+        }
+    }
+
+    /**
+     * 응답 없이 timeout된 요청을 기록한다. 경과 시간을 지연 샘플로 넣고 적응형 한도를 줄인다.
+     */
+    public void recordTimeout(long elapsedNanos) {
+        latency.record(elapsedNanos);
+        AimdLimiter l = limiter;
+        if (l != null) {
+            l.onSample(elapsedNanos, inflightCount.get(), true);
+        }
+    }
+
+    public long getLatencyEwmaNanos() {
+        return latency.getEwmaNanos();
+    }
+
+    public long getLatencyQuantileMillis(double quantile) {
+        return latency.quantileMillis(quantile);
+    }
+
+    public void addPending(PendingRequest request) {
+        pending.add(request);
+    }
+
+    public void removePending(PendingRequest request) {
+        pending.remove(request);
+    }
+
+    public Set<PendingRequest> getPending() {
+        return pending;
+    }
+
     public int getReconnectAttempts() {
         return reconnectAttempts.get();
     }
@@ -68,6 +183,7 @@ public class UpstreamSession {
     }
 
     public void setChannel(Channel ch) {
+        this.writer = ch != null && writerFactory != null ? writerFactory.apply(ch) : null;
         this.channel.set(ch);
         if (ch != null && ch.isActive()) {
             state.set(SessionState.CONNECTED);
@@ -84,14 +200,72 @@ public class UpstreamSession {
         return ch != null && ch.isActive() && state.get() == SessionState.CONNECTED;
     }
 
-    public boolean write(Frame frame) {
+    /**
+     * 아웃바운드 버퍼가 high water mark를 넘으면 false, low water mark 아래로 내려오면 다시 true.
+     * write coalescing 중이면 writer 큐에 쌓인 바이트도 더해 high water mark와 비교한다
+     * (큐는 채널 writability에 잡히지 않아 느린 업스트림에도 계속 선택될 수 있다).
+     */
+    public boolean isWritable() {
+        Channel ch = channel.get();
+        if (ch == null || !ch.isWritable()) {
+            return false;
+        }
+        CoalescingWriter w = writer;
+        return w == null
+                || outboundBufferedBytes(ch) + w.queuedBytes() <= ch.config().getWriteBufferHighWaterMark();
+    }
+
+    /**
+     * 소켓으로 아직 내려가지 않은 아웃바운드 바이트 수 (Netty ChannelOutboundBuffer + write coalescing 큐).
+     */
+    public long getOutboundBufferedBytes() {
+        Channel ch = channel.get();
+        if (ch == null) {
+            return 0;
+        }
+        CoalescingWriter w = writer;
+        return outboundBufferedBytes(ch) + (w != null ? w.queuedBytes() : 0);
+    }
+
+    private static long outboundBufferedBytes(Channel ch) {
+        ChannelOutboundBuffer buffer = ch.unsafe().outboundBuffer();
+        return buffer != null ? buffer.totalPendingWriteBytes() : 0;
+    }
+
+    /**
+     * body는 프레임 버퍼로 복사만 하고 해제하지 않는다 (호출자 소유).
+     */
+    public boolean write(long correlationId, MessageType messageType, ByteBuf body) {
+        return write(correlationId, messageType, body, true);
+    }
+
+    /**
+     * flush=false면 아웃바운드 버퍼에 쌓기만 한다. 호출자가 모아 쓴 뒤 {@link #flush()}를 한 번 호출한다.
+     * write coalescing이 켜져 있으면 flush 시점은 writer가 정하므로 flush 인자와 무관하게 writer에 넘긴다.
+     */
+    public boolean write(long correlationId, MessageType messageType, ByteBuf body, boolean flush) {
         Channel ch = channel.get();
         if (ch == null || !ch.isActive()) {
             log.warn("[session={}] Cannot write, channel inactive", sessionId);
             return false;
         }
-        ByteBuf encoded = FrameCodec.encode(frame);
-        ch.writeAndFlush(encoded);
+        // 채널 allocator 버퍼에 바로 인코딩. writeAndFlush 이후 해제는 Netty가 담당한다.
+        ByteBuf encoded = FrameCodec.encode(ch.alloc(), correlationIdMode, correlationId, messageType, body);
+        CoalescingWriter w = writer;
+        if (w != null) {
+            w.write(encoded);
+        } else if (flush) {
+            ch.writeAndFlush(encoded);
+        } else {
+            ch.write(encoded);
+        }
         return true;
     }
+
+    public void flush() {
+        Channel ch = channel.get();
+        if (ch != null && writer == null) {
+            ch.flush();
+        }
+    }
 }
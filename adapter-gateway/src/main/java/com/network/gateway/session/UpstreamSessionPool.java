@@ -1,11 +1,14 @@
 package com.network.gateway.session;
 
+import com.network.common.netty.CoalescingWriter;
+import com.network.common.netty.NettyTransport;
 import com.network.gateway.config.GatewayProperties;
 import com.network.gateway.netty.GatewayChannelInitializer;
+import com.network.gateway.observability.GatewayMetrics;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +16,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -26,28 +34,70 @@ public class UpstreamSessionPool {
 
     private final GatewayProperties properties;
     private final GatewayChannelInitializer channelInitializer;
-    private final List<UpstreamSession> sessions = new ArrayList<>();
+    private final GatewayMetrics metrics;
+    // 연결 중/연결됨/drain 중인 세션 전부. 스케일링으로 늘고 줄어든다.
+    private final List<UpstreamSession> sessions = new CopyOnWriteArrayList<>();
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
-            r -> new Thread(r, "session-reconnect"));
+            r -> new Thread(r, "session-pool"));
+    private final List<Consumer<UpstreamSession>> sessionDownListeners = new CopyOnWriteArrayList<>();
+    // 연결된 세션 스냅샷. 연결/끊김 때만 새 배열로 교체하고 요청 경로는 읽기만 한다.
+    private volatile UpstreamSession[] activeSessions = new UpstreamSession[0];
+    // 샤딩 모드: 세션마다 고정한 이벤트 루프(재연결해도 같은 루프)와, 루프별 연결된 세션 스냅샷
+    private final Map<UpstreamSession, EventLoop> homeLoops = new ConcurrentHashMap<>();
+    private volatile LoopSessions[] loopSessions;
 
+    private SessionSelector selector;
+    private Function<Channel, CoalescingWriter> writerFactory;
+    private NettyTransport transport;
+    private ByteBufAllocator allocator;
     private EventLoopGroup workerGroup;
     private Bootstrap bootstrap;
+    // 스케일링 판단은 scheduler 스레드에서만 한다
+    private int highUtilizationStreak;
+    private int lowUtilizationStreak;
 
     @PostConstruct
     public void init() {
-        workerGroup = new NioEventLoopGroup(2);
+        NettyTransport requested = properties.getTransport().getType();
+        transport = requested.resolve((fallback, cause) ->
+                log.warn("{} transport unavailable ({}), falling back to {}", requested, cause, fallback));
+        log.info("Using {} transport", transport);
+        workerGroup = transport.newEventLoopGroup(properties.getUpstream().getIoThreads());
+        allocator = properties.getAllocator().options().create();
         bootstrap = new Bootstrap()
                 .group(workerGroup)
-                .channel(NioSocketChannel.class)
+                .channel(transport.socketChannel())
                 .option(ChannelOption.TCP_NODELAY, true)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark())
+                .option(ChannelOption.ALLOCATOR, allocator)
                 .handler(channelInitializer);
+        transport.configure(bootstrap, properties.getTransport().nativeOptions());
+        metrics.registerTransportMeters(transport.name());
+        metrics.registerAllocatorMeters(allocator);
 
+        openInitialSessions();
+
+        GatewayProperties.Upstream upstream = properties.getUpstream();
+        GatewayProperties.Scaling scaling = upstream.getScaling();
+        if (scaling.isEnabled() && upstream.getMaxSessions() > upstream.getMinSessions()) {
+            scheduler.scheduleWithFixedDelay(this::evaluateScaling,
+                    scaling.getIntervalMs(), scaling.getIntervalMs(), TimeUnit.MILLISECONDS);
+            log.info("Elastic session pool enabled: {}..{} sessions", upstream.getMinSessions(),
+                    upstream.getMaxSessions());
+        }
+    }
+
+    /**
+     * 세션 선택 전략을 만들고 minSessions개를 연다. 테스트는 connect를 바꾼 풀에서 init 없이 호출한다.
+     */
+    void openInitialSessions() {
         GatewayProperties.Upstream upstream = properties.getUpstream();
-        for (int i = 0; i < upstream.getMaxSessions(); i++) {
-            UpstreamSession session = new UpstreamSession("session-" + i);
-            sessions.add(session);
-            connect(session);
+        selector = upstream.getSessionSelection().create();
+        writerFactory = coalescingWriterFactory(upstream.getWriteCoalescing());
+        metrics.registerPoolSizeGauges(sessions::size, () -> activeSessions.length);
+        for (int i = 0; i < Math.min(upstream.getMinSessions(), upstream.getMaxSessions()); i++) {
+            openSession();
         }
     }
 
@@ -59,41 +109,240 @@ public class UpstreamSessionPool {
         }
     }
 
+    /**
+     * 연결되어 있고 아웃바운드 버퍼가 high water mark 아래인 세션 중 하나를 설정된 전략으로 고른다.
+     * @return 쓰기 가능한 세션이 없으면 null
+     */
     public UpstreamSession selectSession() {
-        return sessions.stream()
-                .filter(UpstreamSession::isActive)
-                .min(Comparator.comparingInt(UpstreamSession::getInflightCount))
-                .orElse(null);
+        int maxInflight = properties.getUpstream().getMaxInflightPerSession();
+        LoopSessions[] byLoop = loopSessions;
+        if (byLoop != null) {
+            // 호출 스레드가 워커 루프면 같은 루프의 세션을 고른다: 전송/응답/timeout이 이 스레드 안에서 끝난다
+            for (LoopSessions local : byLoop) {
+                if (local.loop().inEventLoop()) {
+                    UpstreamSession session = selector.select(local.sessions(), maxInflight);
+                    if (session != null && session.getInflightCount() < session.getInflightLimit(maxInflight)) {
+                        return session;
+                    }
+                    break;
+                }
+            }
+        }
+        return selector.select(activeSessions, maxInflight);
+    }
+
+    /**
+     * 업스트림 세션이 도는 이벤트 루프 그룹. Netty HTTP ingress가 child 그룹으로 공유한다.
+     */
+    public EventLoopGroup getWorkerGroup() {
+        return workerGroup;
+    }
+
+    /**
+     * 실제로 쓰는 transport (대체된 경우 대체된 쪽). 워커 그룹을 공유하는 서버는 같은 transport의 채널을 써야 한다.
+     */
+    public NettyTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * 업스트림 세션 채널의 allocator. 워커 그룹을 공유하는 ingress 서버도 같은 allocator를 쓴다.
+     */
+    public ByteBufAllocator getAllocator() {
+        return allocator;
     }
 
     public List<UpstreamSession> getAllSessions() {
         return List.copyOf(sessions);
     }
 
+    public boolean hasActiveSession() {
+        for (UpstreamSession session : activeSessions) {
+            if (session.isActive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public int totalInflight() {
         return sessions.stream().mapToInt(UpstreamSession::getInflightCount).sum();
     }
 
-    private void connect(UpstreamSession session) {
+    // 빈 번호 중 가장 작은 것을 쓴다. 세션별 메트릭 태그가 maxSessions개를 넘어 늘어나지 않는다.
+    private synchronized void openSession() {
+        GatewayProperties.Upstream upstream = properties.getUpstream();
+        String sessionId = null;
+        for (int i = 0; i < upstream.getMaxSessions() && sessionId == null; i++) {
+            String candidate = "session-" + i;
+            if (sessions.stream().noneMatch(s -> s.getSessionId().equals(candidate))) {
+                sessionId = candidate;
+            }
+        }
+        if (sessionId == null) {
+            return;
+        }
+
+        UpstreamSession session = new UpstreamSession(sessionId, upstream.getCorrelationIdMode(),
+                writerFactory, upstream.getLatencyEwmaAlpha(), upstream.getLatencyWindowMs());
+        session.setLimiter(newLimiter());
+        sessions.add(session);
+        metrics.registerOutboundGauges(session.getSessionId(),
+                session::getOutboundBufferedBytes, () -> session.isWritable() ? 1 : 0);
+        metrics.registerLatencyGauges(session.getSessionId(),
+                () -> session.getLatencyEwmaNanos() / 1_000_000.0, () -> session.getLatencyQuantileMillis(0.99));
+        metrics.registerInflightLimitGauge(session.getSessionId(),
+                () -> session.getInflightLimit(upstream.getMaxInflightPerSession()));
+        if (upstream.getSharding().isEnabled()) {
+            homeLoops.put(session, leastAssignedLoop());
+        }
+        connect(session);
+    }
+
+    // 세션 수가 가장 적은 루프. 세션이 루프마다 고르게 나뉘어야 shard 부하도 고르다.
+    private EventLoop leastAssignedLoop() {
+        EventLoop best = null;
+        long bestCount = Long.MAX_VALUE;
+        for (EventExecutor executor : workerGroup) {
+            long count = homeLoops.values().stream().filter(loop -> loop == executor).count();
+            if (count < bestCount) {
+                best = (EventLoop) executor;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private AimdLimiter newLimiter() {
+        GatewayProperties.Upstream upstream = properties.getUpstream();
+        GatewayProperties.AdaptiveLimit config = upstream.getAdaptiveLimit();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        return new AimdLimiter(config.getInitialLimit(), config.getMinLimit(), upstream.getMaxInflightPerSession(),
+                config.getBackoffRatio(), TimeUnit.MILLISECONDS.toNanos(config.getLatencyThresholdMs()));
+    }
+
+    /**
+     * 연결된 세션들의 평균 inflight 사용률이 연속 N번 임계치를 넘으면 세션을 하나 열고,
+     * 연속 N번 하한 아래면 가장 한가한 세션 하나를 drain 한다. drain이 끝난 세션은 닫는다.
+     * scheduler 스레드의 주기 작업이며, 테스트는 직접 호출해 한 주기씩 진행한다.
+     */
+    void evaluateScaling() {
+        try {
+            closeDrainedSessions();
+
+            GatewayProperties.Upstream upstream = properties.getUpstream();
+            GatewayProperties.Scaling scaling = upstream.getScaling();
+            UpstreamSession[] active = activeSessions;
+            if (active.length == 0) {
+                return;
+            }
+            long inflight = 0;
+            long capacity = 0;
+            for (UpstreamSession session : active) {
+                inflight += session.getInflightCount();
+                capacity += session.getInflightLimit(upstream.getMaxInflightPerSession());
+            }
+            double utilization = (double) inflight / capacity;
+
+            highUtilizationStreak = utilization >= scaling.getScaleUpUtilization() ? highUtilizationStreak + 1 : 0;
+            lowUtilizationStreak = utilization <= scaling.getScaleDownUtilization() ? lowUtilizationStreak + 1 : 0;
+
+            if (highUtilizationStreak >= scaling.getSustainedIntervals() && sessions.size() < upstream.getMaxSessions()) {
+                log.info("Scaling up: utilization {} over {} intervals, sessions={}",
+                        String.format("%.2f", utilization), highUtilizationStreak, sessions.size());
+                highUtilizationStreak = 0;
+                metrics.incrementScaleUp();
+                openSession();
+            } else if (lowUtilizationStreak >= scaling.getSustainedIntervals()
+                    && countServingSessions() > upstream.getMinSessions()) {
+                lowUtilizationStreak = 0;
+                UpstreamSession idlest = active[0];
+                for (UpstreamSession session : active) {
+                    if (session.getInflightCount() < idlest.getInflightCount()) {
+                        idlest = session;
+                    }
+                }
+                log.info("Scaling down: utilization {}, draining session={}",
+                        String.format("%.2f", utilization), idlest.getSessionId());
+                metrics.incrementScaleDown();
+                drain(idlest);
+            }
+        } catch (Exception e) {
+            log.error("Session pool scaling check failed", e);
+        }
+    }
+
+    // DRAINING이 아닌 세션 수 (재연결 대기 중인 세션 포함)
+    private int countServingSessions() {
+        int count = 0;
+        for (UpstreamSession session : sessions) {
+            if (session.getState() != SessionState.DRAINING) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 새 요청을 받지 않게 하고, 이미 보낸 요청은 응답/timeout으로 끝날 때까지 기다린 뒤 닫는다.
+     * pending을 실패시키지 않는다.
+     */
+    private void drain(UpstreamSession session) {
+        session.setState(SessionState.DRAINING);
+        refreshActiveSessions();
+    }
+
+    private void closeDrainedSessions() {
+        for (UpstreamSession session : sessions) {
+            // inflight에는 선점만 하고 아직 보내지 않은 요청도 포함되므로 0이면 더 보낼 요청이 없다
+            if (session.getState() == SessionState.DRAINING && session.getInflightCount() == 0) {
+                Channel ch = session.getChannel();
+                log.info("[session={}] Drained, closing", session.getSessionId());
+                if (ch != null) {
+                    ch.close(); // closeFuture 리스너가 목록에서 제거한다
+                } else {
+                    retire(session);
+                }
+            }
+        }
+    }
+
+    private void retire(UpstreamSession session) {
+        sessions.remove(session);
+        homeLoops.remove(session);
+        metrics.removeSessionMeters(session.getSessionId());
+        refreshActiveSessions();
+    }
+
+    private WriteBufferWaterMark writeBufferWaterMark() {
+        GatewayProperties.WriteBuffer writeBuffer = properties.getUpstream().getWriteBuffer();
+        return new WriteBufferWaterMark(writeBuffer.getLowWaterMark(), writeBuffer.getHighWaterMark());
+    }
+
+    private Function<Channel, CoalescingWriter> coalescingWriterFactory(GatewayProperties.WriteCoalescing config) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        return ch -> new CoalescingWriter(ch, config.getMaxFrames(), config.getMaxBytes(),
+                config.getMaxDelayMicros(), TimeUnit.MICROSECONDS, metrics::recordFlush);
+    }
+
+    // 테스트는 실제 연결 대신 EmbeddedChannel로 onConnected를 부르도록 바꾼다
+    void connect(UpstreamSession session) {
         GatewayProperties.Upstream upstream = properties.getUpstream();
         String host = upstream.getHost();
         int port = upstream.getPort();
 
         log.info("[session={}] Connecting to {}:{}...", session.getSessionId(), host, port);
 
-        bootstrap.connect(host, port).addListener((ChannelFutureListener) future -> {
+        EventLoop home = homeLoops.get(session);
+        Bootstrap target = home != null ? bootstrap.clone(home) : bootstrap;
+        target.connect(host, port).addListener((ChannelFutureListener) future -> {
             if (future.isSuccess()) {
-                Channel ch = future.channel();
-                session.setChannel(ch);
-                session.setState(SessionState.CONNECTED);
+                onConnected(session, future.channel());
                 log.info("[session={}] Connected to {}:{}", session.getSessionId(), host, port);
-
-                ch.closeFuture().addListener(closeFuture -> {
-                    log.warn("[session={}] Connection lost", session.getSessionId());
-                    session.setState(SessionState.DOWN);
-                    session.setChannel(null);
-                    scheduleReconnect(session);
-                });
             } else {
                 log.error("[session={}] Connection failed: {}", session.getSessionId(),
                         future.cause().getMessage());
@@ -104,6 +353,57 @@ public class UpstreamSessionPool {
         });
     }
 
+    void onConnected(UpstreamSession session, Channel ch) {
+        session.setChannel(ch);
+        session.setState(SessionState.CONNECTED);
+        refreshActiveSessions();
+
+        ch.closeFuture().addListener(closeFuture -> {
+            if (session.getState() == SessionState.DRAINING) {
+                // 스케일 다운으로 닫은 세션: 재연결하지 않는다. 남은 pending이 있으면 평소처럼 실패 처리한다.
+                session.setState(SessionState.DOWN);
+                session.setChannel(null);
+                notifySessionDown(session);
+                retire(session);
+                return;
+            }
+            log.warn("[session={}] Connection lost", session.getSessionId());
+            session.setState(SessionState.DOWN);
+            session.setChannel(null);
+            refreshActiveSessions();
+            notifySessionDown(session);
+            scheduleReconnect(session);
+        });
+    }
+
+    private synchronized void refreshActiveSessions() {
+        UpstreamSession[] active = sessions.stream()
+                .filter(UpstreamSession::isActive)
+                .toArray(UpstreamSession[]::new);
+        activeSessions = active;
+        GatewayProperties.Sharding sharding = properties.getUpstream().getSharding();
+        if (sharding.isEnabled() && sharding.isLoopAffinity()) {
+            loopSessions = groupByLoop(active);
+        }
+    }
+
+    private LoopSessions[] groupByLoop(UpstreamSession[] active) {
+        List<LoopSessions> groups = new ArrayList<>();
+        for (EventExecutor executor : workerGroup) {
+            UpstreamSession[] owned = Arrays.stream(active)
+                    .filter(session -> {
+                        Channel ch = session.getChannel();
+                        return ch != null && ch.eventLoop() == executor;
+                    })
+                    .toArray(UpstreamSession[]::new);
+            groups.add(new LoopSessions((EventLoop) executor, owned));
+        }
+        return groups.toArray(LoopSessions[]::new);
+    }
+
+    private record LoopSessions(EventLoop loop, UpstreamSession[] sessions) {
+    }
+
     private void scheduleReconnect(UpstreamSession session) {
         GatewayProperties.Reconnect reconnect = properties.getUpstream().getReconnect();
         session.incrementReconnectAttempts();
@@ -120,7 +420,20 @@ public class UpstreamSessionPool {
         scheduler.schedule(() -> connect(session), delay, TimeUnit.MILLISECONDS);
     }
 
-    public void failAllPending(UpstreamSession session, java.util.function.Consumer<UpstreamSession> callback) {
-        callback.accept(session);
+    /**
+     * 세션 연결이 끊겼을 때 호출될 리스너를 등록한다. (MuxEngine의 pending fail-fast)
+     */
+    public void addSessionDownListener(Consumer<UpstreamSession> listener) {
+        sessionDownListeners.add(listener);
+    }
+
+    private void notifySessionDown(UpstreamSession session) {
+        for (Consumer<UpstreamSession> listener : sessionDownListeners) {
+            try {
+                listener.accept(session);
+            } catch (Exception e) {
+                log.error("[session={}] Session down listener failed", session.getSessionId(), e);
+            }
+        }
     }
 }
@@ -0,0 +1,194 @@
+package com.network.gateway.admission;
+
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.mux.MuxTestFixture;
+import com.network.gateway.session.UpstreamSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlConcurrencyTest {
+
+    private static final int SESSIONS = 2;
+    private static final int MAX_INFLIGHT = 100;
+    private static final int MAX_QUEUE = 50;
+    private static final int THREADS = 32;
+
+    private MuxTestFixture fixture;
+    private List<UpstreamSession> sessions;
+    private AdmissionControl admissionControl;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        GatewayProperties properties = new GatewayProperties();
+        properties.getUpstream().setMaxInflightPerSession(MAX_INFLIGHT);
+        properties.getUpstream().setMaxQueueDepth(MAX_QUEUE);
+
+        fixture = new MuxTestFixture(properties, SESSIONS);
+        sessions = fixture.sessions();
+        admissionControl = fixture.admissionControl();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        fixture.close();
+    }
+
+    @Test
+    void sequentialReservations_fillSessionsThenQueueThenReject() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < SESSIONS * MAX_INFLIGHT + MAX_QUEUE; i++) {
+            Reservation reservation = admissionControl.tryReserve();
+            assertThat(reservation).isNotNull();
+            reservations.add(reservation);
+        }
+
+        assertThat(admissionControl.tryReserve()).isNull();
+        assertThat(sessions).allSatisfy(session -> assertThat(session.getInflightCount()).isEqualTo(MAX_INFLIGHT));
+        assertThat(reservations.stream().filter(Reservation::isQueued).count()).isEqualTo(MAX_QUEUE);
+        assertThat(admissionControl.getQueueDepth()).isEqualTo(MAX_QUEUE);
+
+        reservations.forEach(Reservation::release);
+        assertThat(sessions).allSatisfy(session -> assertThat(session.getInflightCount()).isZero());
+        assertThat(admissionControl.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void burst_neverOvershootsInflightOrQueueLimit() throws Exception {
+        int attemptsPerThread = 200;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sessionTokens = new AtomicInteger();
+        AtomicInteger queueTokens = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    Reservation reservation = admissionControl.tryReserve();
+                    if (reservation == null) {
+                        continue;
+                    }
+                    (reservation.isQueued() ? queueTokens : sessionTokens).incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(sessions).allSatisfy(session ->
+                assertThat(session.getInflightCount()).isLessThanOrEqualTo(MAX_INFLIGHT));
+        assertThat(sessions.stream().mapToInt(UpstreamSession::getInflightCount).sum()).isEqualTo(sessionTokens.get());
+        assertThat(admissionControl.getQueueDepth()).isEqualTo(queueTokens.get()).isLessThanOrEqualTo(MAX_QUEUE);
+    }
+
+    @Test
+    void churn_inflightObservedAfterReserveNeverExceedsLimit() throws Exception {
+        int iterations = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger maxObserved = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    Reservation reservation = admissionControl.tryReserve();
+                    if (reservation == null) {
+                        continue;
+                    }
+                    if (!reservation.isQueued()) {
+                        int observed = reservation.getSession().getInflightCount();
+                        maxObserved.accumulateAndGet(observed, Math::max);
+                    }
+                    reservation.release();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxObserved.get()).isLessThanOrEqualTo(MAX_INFLIGHT);
+        assertThat(sessions).allSatisfy(session -> assertThat(session.getInflightCount()).isZero());
+        assertThat(admissionControl.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void batch_isAllOrNothing() {
+        assertThat(admissionControl.tryReserveBatch(SESSIONS * MAX_INFLIGHT + MAX_QUEUE + 1)).isNull();
+        assertThat(sessions).allSatisfy(session -> assertThat(session.getInflightCount()).isZero());
+        assertThat(admissionControl.getQueueDepth()).isZero();
+
+        List<Reservation> batch = admissionControl.tryReserveBatch(SESSIONS * MAX_INFLIGHT);
+        assertThat(batch).hasSize(SESSIONS * MAX_INFLIGHT).noneMatch(Reservation::isQueued);
+        batch.forEach(Reservation::release);
+    }
+
+    @Test
+    void consumedReservation_isNotReleasedAgain() {
+        Reservation reservation = admissionControl.tryReserve();
+        UpstreamSession session = reservation.getSession();
+
+        assertThat(reservation.consume()).isTrue();
+        assertThat(reservation.consume()).isFalse();
+        reservation.release();
+
+        // 소비된 slot은 MuxEngine의 완료 경로가 반환하므로 release()는 카운터를 건드리지 않는다
+        assertThat(session.getInflightCount()).isEqualTo(1);
+    }
+
+    @Test
+    void release_refreshesQueueDepthGauge() {
+        List<Reservation> batch = admissionControl.tryReserveBatch(SESSIONS * MAX_INFLIGHT + 3);
+        assertThat(batch).hasSize(SESSIONS * MAX_INFLIGHT + 3);
+        // MuxEngine이 대기열에 넣을 때처럼 게이지를 맞춰 둔다
+        fixture.metrics().setQueueDepth(admissionControl.getQueueDepth());
+        assertThat(fixture.registry().get("queue.depth").gauge().value()).isEqualTo(3.0);
+
+        // submit 실패로 소비되지 못한 토큰을 돌려주면 게이지도 실제 대기열 깊이를 따라가야 한다
+        batch.forEach(Reservation::release);
+        assertThat(admissionControl.getQueueDepth()).isZero();
+        assertThat(fixture.registry().get("queue.depth").gauge().value()).isZero();
+        assertThat(sessions).allSatisfy(session -> assertThat(session.getInflightCount()).isZero());
+    }
+
+    @Test
+    void reservationDeadline_isEarlierOfClientAndGatewayTimeout() {
+        int requestTimeoutMs = new GatewayProperties().getUpstream().getRequestTimeoutMs();
+        long before = System.nanoTime();
+        Reservation defaulted = admissionControl.tryReserve();
+        assertThat(defaulted.getDeadlineNanos() - before)
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs));
+
+        long soon = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        Reservation clientBound = admissionControl.tryReserve(soon);
+        assertThat(clientBound.getDeadlineNanos()).isEqualTo(soon);
+
+        // 게이트웨이 타임아웃보다 긴 예산은 게이트웨이 타임아웃으로 잘린다
+        long far = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+        Reservation capped = admissionControl.tryReserve(far);
+        assertThat(far - capped.getDeadlineNanos()).isPositive();
+
+        List.of(defaulted, clientBound, capped).forEach(Reservation::release);
+    }
+}
@@ -0,0 +1,155 @@
+package com.network.gateway.ingress;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.dto.TransactionStatus;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderResult;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpIngressHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<CompletableFuture<ResponseEntity<AuthorizeResponse>>> submitted = new ArrayList<>();
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        // 요청마다 미완료 future를 돌려주고, 완료 순서는 테스트가 정한다
+        IngressService ingressService = new IngressService(null, null, null, null, null, null) {
+            @Override
+            public CompletableFuture<ResponseEntity<AuthorizeResponse>> authorize(AuthorizeRequest request,
+                                                                                Long timeoutMs) {
+                if ("boom".equals(request.clientTxId())) {
+                    throw new IllegalStateException("boom");
+                }
+                CompletableFuture<ResponseEntity<AuthorizeResponse>> future = new CompletableFuture<>();
+                submitted.add(future);
+                return future;
+            }
+        };
+        channel = new EmbeddedChannel(new HttpIngressHandler(ingressService, objectMapper));
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void pipelinedResponses_areWrittenInRequestOrder() throws Exception {
+        channel.writeInbound(authorizeRequest("first"));
+        channel.writeInbound(authorizeRequest("second"));
+        assertThat(submitted).hasSize(2);
+
+        // 두 번째 요청이 먼저 완료돼도 첫 번째 응답 전에는 쓰지 않는다
+        submitted.get(1).complete(ResponseEntity.ok(approved("tx-2")));
+        assertThat((Object) channel.readOutbound()).isNull();
+
+        submitted.get(0).complete(ResponseEntity.ok(approved("tx-1")));
+        assertThat(txIdOf(channel.readOutbound())).isEqualTo("tx-1");
+        assertThat(txIdOf(channel.readOutbound())).isEqualTo("tx-2");
+        assertThat((Object) channel.readOutbound()).isNull();
+        assertThat(channel.config().isAutoRead()).isTrue();
+    }
+
+    @Test
+    void tooManyPipelinedRequests_pauseReadingUntilResponsesDrain() {
+        for (int i = 0; i < HttpIngressHandler.MAX_PIPELINED; i++) {
+            channel.writeInbound(authorizeRequest("req-" + i));
+        }
+        assertThat(channel.config().isAutoRead()).isFalse();
+
+        submitted.get(0).complete(ResponseEntity.ok(approved("tx-0")));
+        assertThat(channel.config().isAutoRead()).isTrue();
+
+        FullHttpResponse response = channel.readOutbound();
+        response.release();
+    }
+
+    @Test
+    void invalidRequests_getBadRequest_withoutClosingTheConnection() {
+        FullHttpRequest undecodable = authorizeRequest("bad-decode");
+        undecodable.setDecoderResult(DecoderResult.failure(new IllegalArgumentException("bad header")));
+        channel.writeInbound(undecodable);
+        channel.writeInbound(postRequest("/v1/authorize", "null"));
+        channel.writeInbound(postRequest("/v1/authorize/batch", "[null]"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(statusOf(channel.readOutbound())).isEqualTo(HttpResponseStatus.BAD_REQUEST);
+        }
+        assertThat(submitted).isEmpty();
+        assertThat(channel.isOpen()).isTrue();
+    }
+
+    @Test
+    void routeFailure_answers500ForThatRequestOnly() throws Exception {
+        channel.writeInbound(authorizeRequest("first"));
+        channel.writeInbound(authorizeRequest("boom"));
+        channel.writeInbound(authorizeRequest("third"));
+        assertThat(channel.isOpen()).isTrue();
+
+        submitted.get(0).complete(ResponseEntity.ok(approved("tx-1")));
+        submitted.get(1).complete(ResponseEntity.ok(approved("tx-3")));
+        assertThat(txIdOf(channel.readOutbound())).isEqualTo("tx-1");
+        assertThat(statusOf(channel.readOutbound())).isEqualTo(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+        assertThat(txIdOf(channel.readOutbound())).isEqualTo("tx-3");
+    }
+
+    private FullHttpRequest authorizeRequest(String clientTxId) {
+        try {
+            return postRequest("/v1/authorize", objectMapper.writeValueAsString(
+                    new AuthorizeRequest("M001", 15_000L, "KRW", null, clientTxId, "payload")));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FullHttpRequest postRequest(String uri, String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST,
+                uri, Unpooled.wrappedBuffer(body));
+        request.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, body.length);
+        return request;
+    }
+
+    private static HttpResponseStatus statusOf(FullHttpResponse response) {
+        try {
+            return response.status();
+        } finally {
+            response.release();
+        }
+    }
+
+    private static AuthorizeResponse approved(String txId) {
+        return new AuthorizeResponse(txId, TransactionStatus.APPROVED, "OK", 1, "session-0");
+    }
+
+    private String txIdOf(FullHttpResponse response) throws Exception {
+        try {
+            return objectMapper.readValue(response.content().toString(StandardCharsets.UTF_8),
+                    AuthorizeResponse.class).txId();
+        } finally {
+            response.release();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.network.gateway.ingress;
+
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.AuthorizeResponse;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.idempotency.IdempotencyStore;
+import com.network.gateway.mux.MuxTestFixture;
+import com.network.gateway.observability.TransactionLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngressServiceTest {
+
+    private static final String KEY = "idem-1";
+    private static final AuthorizeRequest REQUEST =
+            new AuthorizeRequest("M001", 15_000L, "KRW", KEY, "client-1", "payload");
+
+    private MuxTestFixture fixture;
+    private IngressService ingressService;
+
+    @BeforeEach
+    void setUp() {
+        GatewayProperties properties = new GatewayProperties();
+        // 설정 대기 시간이 길어도 호출자 예산에서 끝나야 한다
+        properties.getIngress().setIdempotentWaitMs(60_000);
+        fixture = new MuxTestFixture(properties, 1);
+        IdempotencyStore idempotencyStore = new IdempotencyStore(properties);
+        ingressService = new IngressService(fixture.muxEngine(), fixture.admissionControl(), idempotencyStore,
+                fixture.metrics(), new TransactionLogger(properties), properties);
+
+        // 같은 키의 요청이 처리 중이고 끝나지 않는다
+        idempotencyStore.putIfAbsent(KEY, new CompletableFuture<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void idempotentAttach_waitsAtMostRequestTimeout() throws Exception {
+        ResponseEntity<AuthorizeResponse> response = ingressService.authorize(REQUEST, 50L)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(response.getBody().reasonCode()).isEqualTo("IDEMPOTENT_WAIT_TIMEOUT");
+    }
+
+    @Test
+    void batchIdempotentAttach_waitsAtMostRequestTimeout() throws Exception {
+        ResponseEntity<List<AuthorizeResponse>> response = ingressService.authorizeBatch(List.of(REQUEST), 50L)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getBody()).singleElement()
+                .satisfies(item -> assertThat(item.reasonCode()).isEqualTo("IDEMPOTENT_WAIT_TIMEOUT"));
+    }
+}
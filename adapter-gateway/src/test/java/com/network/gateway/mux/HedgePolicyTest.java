@@ -0,0 +1,84 @@
+package com.network.gateway.mux;
+
+import com.network.gateway.config.GatewayProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgePolicyTest {
+
+    @Test
+    void budget_allowsOneHedgePerTenRequestsAtTenPercent() {
+        HedgePolicy policy = new HedgePolicy(config(10, 50));
+
+        for (int i = 0; i < 9; i++) {
+            policy.deposit();
+        }
+        assertThat(policy.tryWithdraw()).isFalse();
+
+        policy.deposit();
+        assertThat(policy.tryWithdraw()).isTrue();
+        assertThat(policy.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void budget_isCappedByBurst() {
+        HedgePolicy policy = new HedgePolicy(config(100, 3));
+        for (int i = 0; i < 100; i++) {
+            policy.deposit();
+        }
+
+        int hedges = 0;
+        while (policy.tryWithdraw()) {
+            hedges++;
+        }
+        assertThat(hedges).isEqualTo(3);
+    }
+
+    @Test
+    void delay_followsLatencyPercentile_withFloor() {
+        GatewayProperties.Hedge config = config(10, 50);
+        config.setMinDelayMs(10);
+        config.setPercentile(0.9);
+        HedgePolicy policy = new HedgePolicy(config);
+
+        assertThat(policy.delayMillis()).isEqualTo(10);
+
+        for (int i = 0; i < 90; i++) {
+            policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        for (int i = 0; i < 10; i++) {
+            policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(900));
+        }
+        assertThat(policy.delayMillis()).isEqualTo(64);
+    }
+
+    @Test
+    void group_firstSuccessWins_failureOnlyWhenLastCopyFails() {
+        HedgeGroup success = new HedgeGroup(null);
+        success.addMember();
+        assertThat(success.tryFail()).isFalse();
+        assertThat(success.tryWin()).isTrue();
+        assertThat(success.isDone()).isTrue();
+
+        HedgeGroup raced = new HedgeGroup(null);
+        raced.addMember();
+        assertThat(raced.tryWin()).isTrue();
+        assertThat(raced.tryWin()).isFalse();
+
+        HedgeGroup failed = new HedgeGroup(null);
+        failed.addMember();
+        assertThat(failed.tryFail()).isFalse();
+        assertThat(failed.tryFail()).isTrue();
+    }
+
+    private static GatewayProperties.Hedge config(double budgetPercent, int burst) {
+        GatewayProperties.Hedge config = new GatewayProperties.Hedge();
+        config.setEnabled(true);
+        config.setBudgetPercent(budgetPercent);
+        config.setBudgetBurst(burst);
+        return config;
+    }
+}
@@ -0,0 +1,133 @@
+package com.network.gateway.mux;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.TransactionStatus;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameView;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.idempotency.IdempotencyStore;
+import com.network.gateway.ingress.IngressService;
+import com.network.gateway.observability.TransactionLogger;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 저할당 모드에서 submit → 응답 완료 한 번이 할당하는 바이트 수를 스레드 할당 카운터로 재고 예산과 비교한다.
+ * MuxEngine만 부르는 경로와 IngressService(응답 단계, completeOnTimeout, 완료 로그 포함)부터 부르는 경로를 따로 잰다.
+ * 측정값에는 EmbeddedChannel 큐와 응답 뷰 등 하네스 할당도 포함된다.
+ * 예산을 넘으면 핫패스에 요청당 객체(UUID, 포맷 문자열, Instant, MDC 등)가 다시 들어왔다는 뜻이다.
+ */
+class MuxEngineAllocationTest {
+
+    private static final int WARMUP_OPS = 20_000;
+    private static final int MEASURED_OPS = 10_000;
+    // 요청당 남는 객체(pending, future와 단계, 응답, txId, 하네스 큐 노드)를 더한 값에 여유를 조금 둔 상한.
+    // 핫패스를 바꿔 측정값이 줄면 예산도 측정값 바로 위로 내린다
+    private static final long MUX_BYTES_PER_OP_BUDGET = 768;
+    private static final long INGRESS_BYTES_PER_OP_BUDGET = 1536;
+    private static final AuthorizeRequest REQUEST =
+            new AuthorizeRequest("M001", 15_000L, "KRW", null, "client-1", "payload");
+
+    private final Logger muxLogger = (Logger) LoggerFactory.getLogger(MuxEngine.class);
+    private final Logger txLogger = (Logger) LoggerFactory.getLogger(TransactionLogger.class);
+    private Level previousMuxLevel;
+    private Level previousTxLevel;
+    private MuxTestFixture fixture;
+    private AdmissionControl admissionControl;
+    private MuxEngine muxEngine;
+    private IngressService ingressService;
+    private ByteBuf responseBody;
+
+    @BeforeEach
+    void setUp() {
+        // 디버그 로그는 운영 설정처럼 끈다 (인자 박싱/배열이 측정에 섞이지 않게)
+        previousMuxLevel = muxLogger.getLevel();
+        previousTxLevel = txLogger.getLevel();
+        muxLogger.setLevel(Level.INFO);
+        txLogger.setLevel(Level.INFO);
+
+        GatewayProperties properties = new GatewayProperties();
+        properties.getUpstream().setCorrelationIdMode(CorrelationIdMode.BINARY);
+        properties.getUpstream().setBodyEncoding(BodyEncoding.BINARY);
+        properties.getUpstream().setLowAllocation(true);
+
+        fixture = new MuxTestFixture(properties, 1);
+        admissionControl = fixture.admissionControl();
+        muxEngine = fixture.muxEngine();
+        ingressService = new IngressService(muxEngine, admissionControl, new IdempotencyStore(properties),
+                fixture.metrics(), new TransactionLogger(properties), properties);
+
+        responseBody = Unpooled.buffer();
+        BodyEncoding.BINARY.writeResponse(responseBody, TransactionStatus.APPROVED, "OK");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+        responseBody.release();
+        muxLogger.setLevel(previousMuxLevel);
+        txLogger.setLevel(previousTxLevel);
+    }
+
+    @Test
+    void submitAndComplete_staysWithinAllocationBudget() {
+        assertThat(measureBytesPerOp(() -> muxEngine.submit(REQUEST, MessageType.AUTH_REQ, null,
+                admissionControl.tryReserve())))
+                .as("bytes allocated per submit + complete")
+                .isLessThanOrEqualTo(MUX_BYTES_PER_OP_BUDGET);
+        assertThat(muxEngine.getPendingCount()).isZero();
+    }
+
+    @Test
+    void ingressAuthorize_staysWithinAllocationBudget() {
+        assertThat(measureBytesPerOp(() -> ingressService.authorize(REQUEST)))
+                .as("bytes allocated per ingress authorize + complete")
+                .isLessThanOrEqualTo(INGRESS_BYTES_PER_OP_BUDGET);
+        assertThat(muxEngine.getPendingCount()).isZero();
+    }
+
+    private long measureBytesPerOp(Supplier<? extends CompletableFuture<?>> submit) {
+        java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) mxBean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        // JIT(escape analysis 포함)이 안정될 때까지 먼저 돌린다
+        runOps(WARMUP_OPS, submit);
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        runOps(MEASURED_OPS, submit);
+        return (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_OPS;
+    }
+
+    private void runOps(int ops, Supplier<? extends CompletableFuture<?>> submit) {
+        for (int i = 0; i < ops; i++) {
+            CompletableFuture<?> future = submit.get();
+
+            // 업스트림이 받은 프레임에서 correlationId만 읽어 같은 id로 응답한다
+            long correlationId = fixture.readCorrelationId(0);
+            muxEngine.completeRequest(new FrameView(correlationId, MessageType.AUTH_RES, responseBody));
+
+            if (!future.isDone()) {
+                throw new AssertionError("Request " + correlationId + " was not completed");
+            }
+        }
+    }
+}
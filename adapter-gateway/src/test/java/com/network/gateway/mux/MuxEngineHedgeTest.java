@@ -0,0 +1,201 @@
+package com.network.gateway.mux;
+
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.dto.TransactionStatus;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.FrameView;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.Reservation;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.session.UpstreamSession;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * INQUIRY hedge를 MuxEngine 수준에서 확인한다. 원 요청은 session-0, 사본은 session-1로 간다.
+ * 사본은 mux-timeout 스레드에서 전송되므로 세션 채널의 outbound 큐 대신 핸들러가 correlationId를 스레드 안전한 큐로 넘긴다.
+ */
+class MuxEngineHedgeTest {
+
+    private static final long WAIT_SECONDS = 5;
+    private static final AuthorizeRequest REQUEST =
+            new AuthorizeRequest("M001", 15_000L, "KRW", null, "client-1", "payload");
+
+    private final List<BlockingQueue<Long>> sent = new ArrayList<>();
+    private MuxTestFixture fixture;
+    private MuxEngine muxEngine;
+    private ByteBuf responseBody;
+
+    @BeforeEach
+    void setUp() {
+        GatewayProperties properties = new GatewayProperties();
+        properties.getUpstream().setCorrelationIdMode(CorrelationIdMode.BINARY);
+        GatewayProperties.Hedge hedge = properties.getUpstream().getHedge();
+        hedge.setEnabled(true);
+        hedge.setMinDelayMs(10);
+        // 요청마다 토큰 1개: 예산 때문에 건너뛰지 않는다
+        hedge.setBudgetPercent(100);
+
+        fixture = new MuxTestFixture(properties, 2);
+        for (int i = 0; i < 2; i++) {
+            BlockingQueue<Long> ids = new LinkedBlockingQueue<>();
+            sent.add(ids);
+            fixture.channel(i).pipeline().addLast(new CorrelationIdCapture(ids));
+        }
+        muxEngine = fixture.muxEngine();
+
+        responseBody = Unpooled.buffer();
+        BodyEncoding.BINARY.writeResponse(responseBody, TransactionStatus.APPROVED, "OK");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+        responseBody.release();
+    }
+
+    @Test
+    void firstResponseWins_andLoserIsNotCountedLate() throws Exception {
+        CompletableFuture<AuthorizeResponse> future = submit(fixture.admissionControl().tryReserve());
+        long primaryId = nextSent(0);
+        long copyId = nextSent(1);
+
+        complete(copyId);
+        AuthorizeResponse response = future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertThat(response.status()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(response.upstreamSessionId()).isEqualTo("session-1");
+        assertThat(counter("hedge.win")).isEqualTo(1);
+
+        // 진 쪽 응답은 pending에서 정상 매칭된 뒤 버려진다
+        complete(primaryId);
+        assertThat(counter("tx.late.response.count")).isZero();
+        assertReleased();
+    }
+
+    @Test
+    void failure_isDeliveredOnlyAfterLastCopyFails() throws Exception {
+        CompletableFuture<AuthorizeResponse> future = submit(fixture.admissionControl().tryReserve());
+        nextSent(0);
+        nextSent(1);
+
+        muxEngine.failPendingForSession(fixture.session(0));
+        assertThat(future).isNotDone();
+
+        muxEngine.failPendingForSession(fixture.session(1));
+        assertThat(future.get(WAIT_SECONDS, TimeUnit.SECONDS).reasonCode()).isEqualTo("UPSTREAM_DOWN");
+        assertThat(counter("tx.error.count")).isEqualTo(1);
+        assertReleased();
+    }
+
+    @Test
+    void copyWriteFailure_waitsForPrimary() throws Exception {
+        // 사본 세션은 선택된 뒤 연결이 끊긴 상태: 예약은 되지만 write가 실패한다
+        UpstreamSession primary = fixture.session(0);
+        UpstreamSession copy = fixture.session(1);
+        AtomicInteger selections = new AtomicInteger();
+        fixture.selectWith(() -> selections.getAndIncrement() == 0 ? primary : copy);
+        fixture.channel(1).close();
+
+        CompletableFuture<AuthorizeResponse> future = submit(fixture.admissionControl().tryReserve());
+        nextSent(0);
+        await(() -> counter("hedge.sent") == 1 && counter("tx.error.count") == 1 && copy.getInflightCount() == 0);
+        assertThat(future).isNotDone();
+
+        muxEngine.failPendingForSession(primary);
+        assertThat(future.get(WAIT_SECONDS, TimeUnit.SECONDS).reasonCode()).isEqualTo("UPSTREAM_DOWN");
+        assertReleased();
+    }
+
+    @Test
+    void primaryTimeoutWithCopyOutstanding_deliversOneTimeout() throws Exception {
+        CompletableFuture<AuthorizeResponse> future = submit(
+                fixture.admissionControl().tryReserve(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300)));
+        long primaryId = nextSent(0);
+        long copyId = nextSent(1);
+
+        // 사본 deadline은 원 요청과 같다: 먼저 만료된 쪽은 남은 사본을 기다리고 마지막 만료만 전달한다
+        AuthorizeResponse response = future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertThat(response.status()).isEqualTo(TransactionStatus.TIMEOUT);
+        await(() -> muxEngine.getPendingCount() == 0);
+        assertThat(counter("tx.timeout.count")).isEqualTo(1);
+        assertReleased();
+
+        // 둘 다 만료된 뒤의 응답은 진짜 late response다
+        complete(primaryId);
+        complete(copyId);
+        assertThat(counter("tx.late.response.count")).isEqualTo(2);
+    }
+
+    private CompletableFuture<AuthorizeResponse> submit(Reservation reservation) {
+        return muxEngine.submit(REQUEST, MessageType.INQUIRY_REQ, null, reservation);
+    }
+
+    private void complete(long correlationId) {
+        muxEngine.completeRequest(new FrameView(correlationId, MessageType.INQUIRY_RES, responseBody));
+    }
+
+    private long nextSent(int session) throws InterruptedException {
+        Long correlationId = sent.get(session).poll(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertThat(correlationId).as("frame sent to session-" + session).isNotNull();
+        return correlationId;
+    }
+
+    private double counter(String name) {
+        return fixture.registry().get(name).counter().count();
+    }
+
+    private void assertReleased() {
+        assertThat(muxEngine.getPendingCount()).isZero();
+        assertThat(fixture.sessions()).allSatisfy(session -> assertThat(session.getInflightCount()).isZero());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met in time").isNegative();
+            Thread.sleep(1);
+        }
+    }
+
+    // 업스트림으로 나가는 프레임의 correlationId만 남기고 프레임은 바로 해제한다
+    private static final class CorrelationIdCapture extends ChannelOutboundHandlerAdapter {
+
+        private final BlockingQueue<Long> ids;
+
+        CorrelationIdCapture(BlockingQueue<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ByteBuf frame = (ByteBuf) msg;
+            try {
+                frame.skipBytes(FrameCodec.LENGTH_FIELD_LENGTH);
+                ids.add(CorrelationIdMode.BINARY.read(frame));
+            } finally {
+                frame.release();
+            }
+            promise.trySuccess();
+        }
+    }
+}
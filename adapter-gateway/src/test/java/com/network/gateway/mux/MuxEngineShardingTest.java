@@ -0,0 +1,284 @@
+package com.network.gateway.mux;
+
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.dto.TransactionStatus;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdGenerator;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.admission.Reservation;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.netty.FrameDecoder;
+import com.network.gateway.netty.ResponseHandler;
+import com.network.gateway.observability.GatewayMetrics;
+import com.network.gateway.session.UpstreamSession;
+import com.network.gateway.session.UpstreamSessionPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 샤딩 모드를 실제 이벤트 루프 2개로 확인한다. 세션마다 LocalChannel로 업스트림 스텁에 붙고,
+ * 세션 i는 루프 i(= shard i)에 등록된다. 세션당 inflight 한도는 1이라 두 번째 요청은 대기열로 간다.
+ */
+class MuxEngineShardingTest {
+
+    private static final int SHARDS = 2;
+    private static final long WAIT_SECONDS = 5;
+    private static final AuthorizeRequest REQUEST =
+            new AuthorizeRequest("M001", 15_000L, "KRW", null, "client-1", "payload");
+
+    private final EventLoopGroup workerGroup = new DefaultEventLoopGroup(SHARDS);
+    private final EventLoopGroup upstreamGroup = new DefaultEventLoopGroup(1);
+    private final List<EventLoop> loops = new ArrayList<>();
+    private final List<UpstreamStub> upstreams = new ArrayList<>();
+    private final List<UpstreamSession> sessions = new ArrayList<>();
+    private final AtomicReference<UpstreamSession> selected = new AtomicReference<>();
+    private AdmissionControl admissionControl;
+    private MuxEngine muxEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        GatewayProperties properties = new GatewayProperties();
+        properties.getUpstream().setMaxSessions(SHARDS);
+        properties.getUpstream().setMaxInflightPerSession(1);
+        properties.getUpstream().setCorrelationIdMode(CorrelationIdMode.BINARY);
+        properties.getUpstream().getSharding().setEnabled(true);
+
+        UpstreamSessionPool pool = new UpstreamSessionPool(properties, null, null) {
+            @Override
+            public EventLoopGroup getWorkerGroup() {
+                return workerGroup;
+            }
+
+            @Override
+            public UpstreamSession selectSession() {
+                return selected.get();
+            }
+
+            @Override
+            public boolean hasActiveSession() {
+                return true;
+            }
+        };
+        GatewayMetrics metrics = new GatewayMetrics(new SimpleMeterRegistry());
+        admissionControl = new AdmissionControl(properties, pool, metrics);
+        muxEngine = new MuxEngine(properties, pool, metrics, admissionControl);
+        muxEngine.init();
+
+        for (EventExecutor executor : workerGroup) {
+            loops.add((EventLoop) executor);
+        }
+        for (int i = 0; i < SHARDS; i++) {
+            UpstreamStub upstream = new UpstreamStub(new LocalAddress("mux-sharding-" + i + "-" + System.nanoTime()));
+            upstreams.add(upstream);
+
+            UpstreamSession session = new UpstreamSession("session-" + i, CorrelationIdMode.BINARY);
+            session.setChannel(connect(loops.get(i), upstream.address));
+            sessions.add(session);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        muxEngine.shutdown();
+        sessions.forEach(session -> session.getChannel().close().syncUninterruptibly());
+        upstreams.forEach(upstream -> upstream.server.close().syncUninterruptibly());
+        workerGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).syncUninterruptibly();
+        upstreamGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Test
+    void foreignThreadSubmit_isSentAndCompletedOnOwningLoop() throws Exception {
+        UpstreamSession session = sessions.get(1);
+        selected.set(session);
+
+        CompletableFuture<AuthorizeResponse> future = submit(admissionControl.tryReserve());
+        CompletableFuture<Thread> completedOn = future.handle((response, e) -> Thread.currentThread());
+
+        // 테스트 스레드에서 제출했지만 id는 세션 루프의 shard 구간에서 나온다
+        long correlationId = upstreams.get(1).nextReceived();
+        assertThat(shardOf(correlationId)).isEqualTo(1);
+        upstreams.get(1).respond(correlationId);
+
+        assertThat(future.get(WAIT_SECONDS, TimeUnit.SECONDS).status()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(loops.get(1).inEventLoop(completedOn.get(WAIT_SECONDS, TimeUnit.SECONDS))).isTrue();
+        assertThat(muxEngine.getPendingCount()).isZero();
+        assertThat(session.getInflightCount()).isZero();
+    }
+
+    @Test
+    void timeout_firesOnOwningLoop() throws Exception {
+        UpstreamSession session = sessions.get(0);
+        selected.set(session);
+
+        CompletableFuture<AuthorizeResponse> future = submit(
+                admissionControl.tryReserve(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100)));
+        CompletableFuture<Thread> completedOn = future.handle((response, e) -> Thread.currentThread());
+        upstreams.get(0).nextReceived(); // 응답하지 않는다
+
+        AuthorizeResponse response = future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertThat(response.status()).isEqualTo(TransactionStatus.TIMEOUT);
+        assertThat(response.reasonCode()).isEqualTo("REQUEST_TIMEOUT");
+        assertThat(loops.get(0).inEventLoop(completedOn.get(WAIT_SECONDS, TimeUnit.SECONDS))).isTrue();
+        assertThat(muxEngine.getPendingCount()).isZero();
+        assertThat(session.getInflightCount()).isZero();
+    }
+
+    @Test
+    void queuedToken_withShardZeroId_isSentOnOtherLoopAndRoutedBack() throws Exception {
+        UpstreamStub upstream = upstreams.get(1);
+        CompletableFuture<AuthorizeResponse> first = occupySessionOne();
+        CompletableFuture<AuthorizeResponse> queued = submit(queuedReservation());
+
+        long firstId = upstream.nextReceived();
+        upstream.respond(firstId);
+        // 응답으로 slot이 비면 루프 1이 대기열을 비우며 같은 세션으로 보낸다. id는 대기열에 들어갈 때 shard 0에서 받았다
+        long queuedId = upstream.nextReceived();
+        assertThat(shardOf(firstId)).isEqualTo(1);
+        assertThat(shardOf(queuedId)).isEqualTo(0);
+
+        upstream.respond(queuedId);
+        assertThat(first.get(WAIT_SECONDS, TimeUnit.SECONDS).status()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(queued.get(WAIT_SECONDS, TimeUnit.SECONDS).status()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(muxEngine.getPendingCount()).isZero();
+        assertThat(sessions.get(1).getInflightCount()).isZero();
+    }
+
+    @Test
+    void failPendingForSession_failsRequestsFromEveryShardOnThatSession() throws Exception {
+        UpstreamSession down = sessions.get(1);
+        occupySessionOne();
+        CompletableFuture<AuthorizeResponse> queued = submit(queuedReservation());
+        upstreams.get(1).respond(upstreams.get(1).nextReceived());
+        upstreams.get(1).nextReceived(); // shard 0 id로 세션 1에 전송됨
+
+        selected.set(sessions.get(0));
+        CompletableFuture<AuthorizeResponse> other = submit(admissionControl.tryReserve());
+        long otherId = upstreams.get(0).nextReceived();
+        assertThat(muxEngine.getPendingCount()).isEqualTo(2);
+
+        muxEngine.failPendingForSession(down);
+
+        assertThat(queued.get(WAIT_SECONDS, TimeUnit.SECONDS).reasonCode()).isEqualTo("UPSTREAM_DOWN");
+        assertThat(down.getInflightCount()).isZero();
+        assertThat(other).isNotDone();
+        assertThat(muxEngine.getPendingCount()).isEqualTo(1);
+
+        upstreams.get(0).respond(otherId);
+        assertThat(other.get(WAIT_SECONDS, TimeUnit.SECONDS).status()).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(muxEngine.getPendingCount()).isZero();
+    }
+
+    // 세션 1의 유일한 slot을 첫 요청이 차지하게 한다. 응답 전까지 다음 토큰은 대기열 토큰이 된다.
+    private CompletableFuture<AuthorizeResponse> occupySessionOne() {
+        selected.set(sessions.get(1));
+        return submit(admissionControl.tryReserve());
+    }
+
+    private Reservation queuedReservation() {
+        Reservation reservation = admissionControl.tryReserve();
+        assertThat(reservation.isQueued()).isTrue();
+        return reservation;
+    }
+
+    private CompletableFuture<AuthorizeResponse> submit(Reservation reservation) {
+        return muxEngine.submit(REQUEST, MessageType.AUTH_REQ, null, reservation);
+    }
+
+    private static int shardOf(long correlationId) {
+        return CorrelationIdGenerator.shardOf(CorrelationIdMode.BINARY, correlationId, SHARDS);
+    }
+
+    private Channel connect(EventLoop loop, LocalAddress address) throws InterruptedException {
+        return new Bootstrap()
+                .group(loop)
+                .channel(LocalChannel.class)
+                .handler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                        ch.pipeline()
+                                .addLast(new FrameDecoder())
+                                .addLast(new ResponseHandler(muxEngine, CorrelationIdMode.BINARY));
+                    }
+                })
+                .connect(address).sync().channel();
+    }
+
+    // 받은 요청 프레임의 correlationId를 모아 두고, 테스트가 고른 순서로 같은 id의 응답을 보낸다
+    private final class UpstreamStub {
+
+        private final LocalAddress address;
+        private final Channel server;
+        private final BlockingQueue<Long> received = new LinkedBlockingQueue<>();
+        private volatile Channel child;
+
+        UpstreamStub(LocalAddress address) throws InterruptedException {
+            this.address = address;
+            this.server = new ServerBootstrap()
+                    .group(upstreamGroup)
+                    .channel(LocalServerChannel.class)
+                    .childHandler(new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            // LocalChannel은 쓴 버퍼를 그대로 넘기므로 메시지 하나가 프레임 하나다
+                            ByteBuf frame = (ByteBuf) msg;
+                            try {
+                                child = ctx.channel();
+                                frame.skipBytes(FrameCodec.LENGTH_FIELD_LENGTH);
+                                received.add(CorrelationIdMode.BINARY.read(frame));
+                            } finally {
+                                frame.release();
+                            }
+                        }
+                    })
+                    .bind(address).sync().channel();
+        }
+
+        long nextReceived() throws InterruptedException {
+            Long correlationId = received.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertThat(correlationId).as("request frame on " + address).isNotNull();
+            return correlationId;
+        }
+
+        void respond(long correlationId) {
+            Channel ch = child;
+            ByteBuf body = ch.alloc().heapBuffer();
+            try {
+                BodyEncoding.BINARY.writeResponse(body, TransactionStatus.APPROVED, "OK");
+                ch.writeAndFlush(FrameCodec.encode(ch.alloc(), CorrelationIdMode.BINARY, correlationId,
+                        MessageType.AUTH_RES, body));
+            } finally {
+                body.release();
+            }
+        }
+    }
+}
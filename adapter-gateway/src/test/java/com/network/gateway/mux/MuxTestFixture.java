@@ -0,0 +1,168 @@
+package com.network.gateway.mux;
+
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameCodec;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.observability.GatewayMetrics;
+import com.network.gateway.session.UpstreamSession;
+import com.network.gateway.session.UpstreamSessionPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * mux 테스트 공통 구성: 연결 없이 EmbeddedChannel 세션 목록을 쓰는 풀 + AdmissionControl + MuxEngine.
+ * 세션 선택은 실제 풀처럼 활성 + 쓰기 가능 + 최소 inflight이고 {@link #selectWith}로 바꿀 수 있다.
+ * 업스트림이 받은 프레임은 {@link #readCorrelationId(int)}로 꺼낸다.
+ */
+public final class MuxTestFixture implements AutoCloseable {
+
+    private final GatewayProperties properties;
+    private final List<UpstreamSession> sessions = new ArrayList<>();
+    private final List<EmbeddedChannel> channels = new ArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GatewayMetrics metrics = new GatewayMetrics(registry);
+    private final UpstreamSessionPool pool;
+    private final AdmissionControl admissionControl;
+    private volatile Supplier<UpstreamSession> selector = this::leastInflight;
+    private ByteBufAllocator allocator;
+    private MuxEngine muxEngine;
+
+    /**
+     * 세션은 session-0..n-1이고 correlationId 모드는 properties를 따른다. maxSessions는 sessionCount로 맞춘다.
+     */
+    public MuxTestFixture(GatewayProperties properties, int sessionCount) {
+        this.properties = properties;
+        properties.getUpstream().setMaxSessions(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            EmbeddedChannel channel = new EmbeddedChannel();
+            UpstreamSession session = new UpstreamSession("session-" + i,
+                    properties.getUpstream().getCorrelationIdMode());
+            session.setChannel(channel);
+            channels.add(channel);
+            sessions.add(session);
+        }
+        pool = new FixedSessionPool();
+        admissionControl = new AdmissionControl(properties, pool, metrics);
+    }
+
+    /**
+     * 처음 호출할 때 MuxEngine을 만들고 init 한다 (timeout 타이머 스레드 시작). 정리는 {@link #close()}.
+     */
+    public MuxEngine muxEngine() {
+        if (muxEngine == null) {
+            muxEngine = new MuxEngine(properties, pool, metrics, admissionControl);
+            muxEngine.init();
+        }
+        return muxEngine;
+    }
+
+    public AdmissionControl admissionControl() {
+        return admissionControl;
+    }
+
+    public GatewayMetrics metrics() {
+        return metrics;
+    }
+
+    public SimpleMeterRegistry registry() {
+        return registry;
+    }
+
+    public List<UpstreamSession> sessions() {
+        return sessions;
+    }
+
+    public UpstreamSession session(int index) {
+        return sessions.get(index);
+    }
+
+    public EmbeddedChannel channel(int index) {
+        return channels.get(index);
+    }
+
+    /**
+     * 풀의 세션 선택을 바꾼다 (AdmissionControl의 예약과 hedge 세션 선택에 모두 쓰인다).
+     */
+    public void selectWith(Supplier<UpstreamSession> selector) {
+        this.selector = selector;
+    }
+
+    /**
+     * 풀의 allocator(gateway.allocator 자리)를 정한다. MuxEngine이 init 때 읽으므로 {@link #muxEngine()} 전에 부른다.
+     * 정하지 않으면 init 하지 않은 풀처럼 null이다.
+     */
+    public void useAllocator(ByteBufAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * 세션 index의 업스트림이 받은 다음 프레임에서 correlationId만 읽고 프레임은 해제한다.
+     */
+    public long readCorrelationId(int index) {
+        ByteBuf frame = channels.get(index).readOutbound();
+        if (frame == null) {
+            throw new AssertionError("No frame written to session-" + index);
+        }
+        try {
+            frame.skipBytes(FrameCodec.LENGTH_FIELD_LENGTH);
+            CorrelationIdMode mode = properties.getUpstream().getCorrelationIdMode();
+            return mode.read(frame);
+        } finally {
+            frame.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (muxEngine != null) {
+            muxEngine.shutdown();
+        }
+        channels.forEach(EmbeddedChannel::finishAndReleaseAll);
+    }
+
+    // 할당 측정 구간에서도 쓰이므로 스트림 없이 고른다
+    private UpstreamSession leastInflight() {
+        UpstreamSession best = null;
+        for (UpstreamSession session : sessions) {
+            if (session.isActive() && session.isWritable()
+                    && (best == null || session.getInflightCount() < best.getInflightCount())) {
+                best = session;
+            }
+        }
+        return best;
+    }
+
+    private final class FixedSessionPool extends UpstreamSessionPool {
+
+        FixedSessionPool() {
+            super(properties, null, null);
+        }
+
+        @Override
+        public UpstreamSession selectSession() {
+            return selector.get();
+        }
+
+        @Override
+        public ByteBufAllocator getAllocator() {
+            return allocator;
+        }
+
+        @Override
+        public boolean hasActiveSession() {
+            for (UpstreamSession session : sessions) {
+                if (session.isActive()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
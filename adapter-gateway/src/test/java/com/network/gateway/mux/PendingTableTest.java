@@ -0,0 +1,178 @@
+package com.network.gateway.mux;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PendingTableTest {
+
+    // 용량 32, mask 31
+    private static final int MAX_INFLIGHT = 16;
+
+    @Test
+    void capacity_isPowerOfTwoAtLeastTwiceMaxInflight() {
+        assertThat(new PendingTable(MAX_INFLIGHT).capacity()).isEqualTo(32);
+        assertThat(new PendingTable(17).capacity()).isEqualTo(64);
+        assertThat(new PendingTable(1).capacity()).isEqualTo(PendingTable.MAX_PROBE);
+    }
+
+    @Test
+    void collision_probesForward_andWrapsAroundAtMask() {
+        PendingTable table = new PendingTable(MAX_INFLIGHT);
+        PendingRequest last = request(31);
+        PendingRequest wrapped = request(63);
+        PendingRequest next = request(32);
+
+        // 63 & 31 = 31 이 차 있으므로 0번으로 넘어가고, 0번이 찬 32는 1번에 들어간다
+        assertThat(table.put(31, last)).isTrue();
+        assertThat(table.put(63, wrapped)).isTrue();
+        assertThat(table.put(32, next)).isTrue();
+
+        assertThat(table.get(31)).isSameAs(last);
+        assertThat(table.get(63)).isSameAs(wrapped);
+        assertThat(table.get(32)).isSameAs(next);
+        assertThat(table.size()).isEqualTo(3);
+
+        assertThat(table.remove(31)).isSameAs(last);
+        assertThat(table.get(63)).isSameAs(wrapped);
+        assertThat(table.remove(63)).isSameAs(wrapped);
+        assertThat(table.remove(32)).isSameAs(next);
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    void put_failsWhenMaxProbeSlotsAreOccupied() {
+        PendingTable table = new PendingTable(MAX_INFLIGHT);
+        for (long id = 0; id < PendingTable.MAX_PROBE; id++) {
+            assertThat(table.put(id, request(id))).isTrue();
+        }
+
+        // 32는 0번부터 MAX_PROBE칸이 모두 차 있다
+        PendingRequest overflow = request(32);
+        assertThat(table.put(32, overflow)).isFalse();
+        assertThat(table.get(32)).isNull();
+        assertThat(table.size()).isEqualTo(PendingTable.MAX_PROBE);
+
+        // 탐색 범위 안에 자리가 나면 다시 들어간다
+        table.remove(5);
+        assertThat(table.put(32, overflow)).isTrue();
+        assertThat(table.get(32)).isSameAs(overflow);
+        assertThat(table.size()).isEqualTo(PendingTable.MAX_PROBE);
+    }
+
+    @Test
+    void removeInMiddleOfProbeRun_keepsLaterEntriesReachable() {
+        PendingTable table = new PendingTable(MAX_INFLIGHT);
+        PendingRequest first = request(0);
+        PendingRequest middle = request(32);
+        PendingRequest tail = request(64);
+        table.put(0, first);
+        table.put(32, middle);
+        table.put(64, tail);
+
+        // tombstone이 없어도 조회는 MAX_PROBE칸까지 보므로 빈 칸 뒤의 64를 찾는다
+        assertThat(table.remove(32)).isSameAs(middle);
+        assertThat(table.get(64)).isSameAs(tail);
+        assertThat(table.remove(32)).isNull();
+        assertThat(table.remove(96)).isNull();
+
+        PendingRequest refill = request(96);
+        assertThat(table.put(96, refill)).isTrue();
+        assertThat(table.remove(64)).isSameAs(tail);
+        assertThat(table.get(96)).isSameAs(refill);
+        assertThat(table.get(0)).isSameAs(first);
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    void sweep_removesOnlyMatchingEntries() {
+        PendingTable table = new PendingTable(MAX_INFLIGHT);
+        for (long id = 0; id < 10; id++) {
+            table.put(id, request(id));
+        }
+
+        List<Long> swept = new ArrayList<>();
+        int removed = table.sweep(request -> request.getCorrelationId() % 2 == 0,
+                request -> swept.add(request.getCorrelationId()));
+
+        assertThat(removed).isEqualTo(5);
+        assertThat(swept).containsExactly(0L, 2L, 4L, 6L, 8L);
+        assertThat(table.size()).isEqualTo(5);
+        assertThat(table.get(2)).isNull();
+        assertThat(table.get(3)).isNotNull();
+    }
+
+    @Test
+    void concurrentPutRemoveAndSweep_keepSizeConsistent() throws Exception {
+        int writers = 4;
+        int opsPerWriter = 50_000;
+        // writer마다 최근 id 몇 개만 살아 있게 해 실제처럼 테이블이 부분적으로만 찬다
+        int window = 32;
+        PendingTable table = new PendingTable(1024);
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong puts = new AtomicLong();
+        AtomicLong removes = new AtomicLong();
+        AtomicLong swept = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ArrayDeque<Long> live = new ArrayDeque<>();
+                    for (int i = 0; i < opsPerWriter; i++) {
+                        long id = sequence.getAndIncrement();
+                        if (table.put(id, request(id))) {
+                            puts.incrementAndGet();
+                            live.add(id);
+                        }
+                        if (live.size() > window && table.remove(live.poll()) != null) {
+                            removes.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> sweeper = executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    // sweep과 remove가 같은 요청을 두고 경합하면 한쪽만 이긴다
+                    swept.addAndGet(table.sweep(request -> request.getCorrelationId() % 3 == 0, request -> { }));
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            sweeper.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long expected = puts.get() - removes.get() - swept.get();
+        assertThat(table.size()).isEqualTo((int) expected);
+        assertThat(table.sweep(request -> true, request -> { })).isEqualTo((int) expected);
+        assertThat(table.size()).isZero();
+    }
+
+    private static PendingRequest request(long correlationId) {
+        return new PendingRequest(correlationId, "tx-" + correlationId, 0, Long.MAX_VALUE, null, null);
+    }
+}
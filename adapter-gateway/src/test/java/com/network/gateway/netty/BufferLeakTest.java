@@ -0,0 +1,147 @@
+package com.network.gateway.netty;
+
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.AuthorizeResponse;
+import com.network.common.dto.TransactionStatus;
+import com.network.common.netty.AllocatorOptions;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.FrameView;
+import com.network.common.protocol.MessageType;
+import com.network.gateway.admission.AdmissionControl;
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.mux.MuxEngine;
+import com.network.gateway.mux.MuxTestFixture;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FrameCodec과 ResponseHandler 경로가 풀 버퍼를 모두 반환하는지 arena의 활성 할당 수로 확인한다.
+ * 스레드 캐시를 꺼서 release가 곧바로 arena에 반영되게 한다.
+ * ./gradlew :adapter-gateway:leakTest 로 돌리면 leak detector도 PARANOID로 모든 버퍼를 추적한다.
+ */
+@Tag("leak")
+class BufferLeakTest {
+
+    private static final AuthorizeRequest REQUEST =
+            new AuthorizeRequest("M001", 15_000L, "KRW", null, "client-1", "payload");
+
+    private final PooledByteBufAllocator allocator = (PooledByteBufAllocator)
+            new AllocatorOptions(true, true, 1, 1, 0, 0, false).create();
+    private MuxTestFixture fixture;
+    private EmbeddedChannel responseChannel;
+    private AdmissionControl admissionControl;
+    private MuxEngine muxEngine;
+
+    @BeforeEach
+    void setUp() {
+        GatewayProperties properties = new GatewayProperties();
+        properties.getUpstream().setCorrelationIdMode(CorrelationIdMode.BINARY);
+
+        fixture = new MuxTestFixture(properties, 1);
+        fixture.channel(0).config().setAllocator(allocator);
+        fixture.useAllocator(allocator);
+        admissionControl = fixture.admissionControl();
+        muxEngine = fixture.muxEngine();
+
+        responseChannel = new EmbeddedChannel(new FrameDecoder(), new ResponseHandler(muxEngine, CorrelationIdMode.BINARY));
+        responseChannel.config().setAllocator(allocator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+        responseChannel.finishAndReleaseAll();
+    }
+
+    @Test
+    void frameCodec_encodeAndDecodeRetained_returnsAllBuffers() {
+        ByteBuf body = responseBody();
+        ByteBuf frame = FrameCodec.encode(allocator, CorrelationIdMode.BINARY, 42L, MessageType.AUTH_RES, body);
+        body.release();
+
+        FrameView view = FrameCodec.decodeRetained(frame, CorrelationIdMode.BINARY);
+        frame.release();
+        assertThat(view.correlationId()).isEqualTo(42L);
+        assertThat(BodyEncoding.of(view.body()).readStatus(view.body())).isEqualTo(TransactionStatus.APPROVED);
+        view.release();
+
+        assertThat(frame.refCnt()).isZero();
+        assertThat(activeAllocations()).isZero();
+    }
+
+    @Test
+    void submit_encodesRequestBodyWithPoolAllocator() {
+        muxEngine.submit(REQUEST, MessageType.AUTH_REQ, null, admissionControl.tryReserve());
+        fixture.readCorrelationId(0);
+
+        // 프레임은 ioBuffer(direct)라 heap arena 할당은 요청 바디뿐이고, 인코딩 후 바로 반환된다
+        assertThat(allocator.metric().heapArenas().stream().mapToLong(PoolArenaMetric::numAllocations).sum())
+                .isEqualTo(1);
+        assertThat(activeAllocations()).isZero();
+    }
+
+    @Test
+    void responseHandler_releasesMatchedLateSplitAndMalformedFrames() {
+        CompletableFuture<AuthorizeResponse> future = muxEngine.submit(REQUEST, MessageType.AUTH_REQ, null,
+                admissionControl.tryReserve());
+        long correlationId = fixture.readCorrelationId(0);
+
+        // 정상 응답
+        responseChannel.writeInbound(responseFrame(correlationId));
+        assertThat(future).isCompleted();
+        assertThat(future.join().status()).isEqualTo(TransactionStatus.APPROVED);
+
+        // 이미 완료된 id로 온 late response
+        responseChannel.writeInbound(responseFrame(correlationId));
+
+        // 두 번에 나눠 도착한 프레임 (decoder 누적 버퍼 경로)
+        ByteBuf split = responseFrame(correlationId + 1);
+        ByteBuf head = split.readRetainedSlice(5);
+        responseChannel.writeInbound(head);
+        responseChannel.writeInbound(split);
+
+        // 알 수 없는 MSG_TYPE: 디코딩 실패도 입력 버퍼를 남기지 않아야 한다
+        ByteBuf malformed = allocator.directBuffer();
+        malformed.writeInt(FrameCodec.CORR_ID_LENGTH + FrameCodec.MSG_TYPE_LENGTH);
+        malformed.writeLong(7L);
+        malformed.writeShort(0x7FFF);
+        responseChannel.writeInbound(malformed);
+
+        assertThat(muxEngine.getPendingCount()).isZero();
+        assertThat(activeAllocations()).isZero();
+    }
+
+    private ByteBuf responseFrame(long correlationId) {
+        ByteBuf body = responseBody();
+        try {
+            return FrameCodec.encode(allocator, CorrelationIdMode.BINARY, correlationId, MessageType.AUTH_RES, body);
+        } finally {
+            body.release();
+        }
+    }
+
+    private ByteBuf responseBody() {
+        ByteBuf body = allocator.heapBuffer();
+        BodyEncoding.BINARY.writeResponse(body, TransactionStatus.APPROVED, "OK");
+        return body;
+    }
+
+    private long activeAllocations() {
+        return Stream.concat(allocator.metric().directArenas().stream(), allocator.metric().heapArenas().stream())
+                .mapToLong(PoolArenaMetric::numActiveAllocations)
+                .sum();
+    }
+}
@@ -0,0 +1,78 @@
+package com.network.gateway.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AimdLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(300);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(30);
+
+    @Test
+    void fastResponses_growLimitAdditively_onlyWhenUtilized() {
+        AimdLimiter limiter = new AimdLimiter(100, 10, 1000, 0.9, THRESHOLD);
+
+        limiter.onSample(FAST, 10, false);
+        assertThat(limiter.getLimit()).isEqualTo(100);
+
+        limiter.onSample(FAST, 60, false);
+        limiter.onSample(FAST, 60, false);
+        assertThat(limiter.getLimit()).isEqualTo(102);
+    }
+
+    @Test
+    void limit_neverExceedsMax() {
+        AimdLimiter limiter = new AimdLimiter(999, 10, 1000, 0.9, THRESHOLD);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(FAST, 1000, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1000);
+    }
+
+    @Test
+    void slowOrDroppedSample_backsOffOncePerRoundTrip() {
+        long slow = TimeUnit.MILLISECONDS.toNanos(5);
+        AtomicLong clock = new AtomicLong();
+        AimdLimiter limiter = new AimdLimiter(100, 10, 1000, 0.5, TimeUnit.MILLISECONDS.toNanos(1), clock::get);
+        clock.addAndGet(slow);
+
+        limiter.onSample(slow, 100, false);
+        assertThat(limiter.getLimit()).isEqualTo(50);
+
+        // 같은 왕복 구간에 돌아온 느린 응답은 다시 줄이지 않는다
+        limiter.onSample(slow, 100, true);
+        clock.addAndGet(slow - 1);
+        limiter.onSample(slow, 100, true);
+        assertThat(limiter.getLimit()).isEqualTo(50);
+
+        clock.addAndGet(1);
+        limiter.onSample(slow, 100, true);
+        assertThat(limiter.getLimit()).isEqualTo(25);
+    }
+
+    @Test
+    void limit_neverDropsBelowMin() {
+        AtomicLong clock = new AtomicLong();
+        AimdLimiter limiter = new AimdLimiter(12, 10, 1000, 0.5, 0, clock::get);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(1), 12, true);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void invalidConfig_throws() {
+        assertThatThrownBy(() -> new AimdLimiter(10, 0, 100, 0.9, THRESHOLD))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AimdLimiter(10, 20, 10, 0.9, THRESHOLD))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AimdLimiter(10, 1, 100, 1.0, THRESHOLD))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
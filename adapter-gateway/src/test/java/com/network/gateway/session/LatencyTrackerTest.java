@@ -0,0 +1,89 @@
+package com.network.gateway.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyTrackerTest {
+
+    @Test
+    void firstSampleSeedsEwma_thenMovesByAlpha() {
+        LatencyTracker tracker = new LatencyTracker(0.5);
+
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(tracker.getEwmaNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(tracker.getEwmaNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    void quantile_returnsBucketUpperBound() {
+        LatencyTracker tracker = new LatencyTracker(0.2);
+        for (int i = 0; i < 99; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(30));
+        }
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(900));
+
+        assertThat(tracker.quantileMillis(0.5)).isEqualTo(32);
+        assertThat(tracker.quantileMillis(0.99)).isEqualTo(32);
+        assertThat(tracker.quantileMillis(1.0)).isEqualTo(1024);
+    }
+
+    @Test
+    void quantile_onlyCoversPreviousAndCurrentWindow() {
+        AtomicLong clock = new AtomicLong();
+        LatencyTracker tracker = new LatencyTracker(0.2, 1000, clock::get);
+        record(tracker, 100, 900);
+        assertThat(tracker.quantileMillis(0.99)).isEqualTo(1024);
+
+        // 다음 구간: 느린 구간은 직전 구간으로 남는다
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        record(tracker, 100, 30);
+        assertThat(tracker.quantileMillis(0.5)).isEqualTo(32);
+        assertThat(tracker.quantileMillis(0.99)).isEqualTo(1024);
+
+        // 한 구간 더 지나면 느린 구간은 빠진다
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(tracker.quantileMillis(0.99)).isEqualTo(32);
+
+        // 샘플 없이 두 구간 넘게 지나면 비어 있다
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(2000));
+        assertThat(tracker.quantileMillis(0.99)).isZero();
+    }
+
+    @Test
+    void bucketOf_coversPowerOfTwoRanges() {
+        assertThat(LatencyTracker.bucketOf(0)).isZero();
+        assertThat(LatencyTracker.bucketOf(1)).isZero();
+        assertThat(LatencyTracker.bucketOf(2)).isEqualTo(1);
+        assertThat(LatencyTracker.bucketOf(3)).isEqualTo(2);
+        assertThat(LatencyTracker.bucketOf(4)).isEqualTo(2);
+        assertThat(LatencyTracker.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyTracker.BUCKETS - 1);
+    }
+
+    @Test
+    void emptyTracker_reportsZero() {
+        LatencyTracker tracker = new LatencyTracker(0.2);
+
+        assertThat(tracker.getEwmaNanos()).isZero();
+        assertThat(tracker.quantileMillis(0.99)).isZero();
+    }
+
+    @Test
+    void invalidAlpha_throws() {
+        assertThatThrownBy(() -> new LatencyTracker(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LatencyTracker(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LatencyTracker(0.2, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void record(LatencyTracker tracker, int samples, long millis) {
+        for (int i = 0; i < samples; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.network.gateway.session;
+
+import com.network.common.netty.CoalescingWriter;
+import com.network.common.protocol.CorrelationIdMode;
+import com.network.common.protocol.MessageType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionSelectorTest {
+
+    private static final int MAX_INFLIGHT = 10;
+
+    @Test
+    void powerOfTwoChoices_skipsInactiveSessions() {
+        UpstreamSession[] sessions = {session("a", 0, false), session("b", 5, true), session("c", 0, false)};
+        SessionSelector selector = new PowerOfTwoChoicesSelector();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(selector.select(sessions, MAX_INFLIGHT)).isSameAs(sessions[1]);
+        }
+    }
+
+    @Test
+    void powerOfTwoChoices_prefersLessLoadedOfTwo() {
+        UpstreamSession[] sessions = {session("a", 9, true), session("b", 1, true)};
+
+        assertThat(new PowerOfTwoChoicesSelector().select(sessions, MAX_INFLIGHT)).isSameAs(sessions[1]);
+    }
+
+    @Test
+    void selectors_findTheOnlySessionWithRoom() {
+        // 8개 중 하나만 한도 아래: 무작위 두 개가 모두 한도여도 여유 있는 세션을 찾아야 한다
+        UpstreamSession[] sessions = new UpstreamSession[8];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = session("s" + i, i == 5 ? MAX_INFLIGHT - 1 : MAX_INFLIGHT, true);
+        }
+
+        for (SessionSelection selection : SessionSelection.values()) {
+            SessionSelector selector = selection.create();
+            for (int i = 0; i < 200; i++) {
+                assertThat(selector.select(sessions, MAX_INFLIGHT)).as(selection.name()).isSameAs(sessions[5]);
+            }
+        }
+    }
+
+    @Test
+    void coalescingQueueAboveHighWaterMark_makesSessionNonWritable() {
+        // drain이 1초 뒤로 잡혀 있어 프레임은 writer 큐에만 있고 채널 아웃바운드 버퍼는 비어 있다
+        UpstreamSession queued = new UpstreamSession("q", CorrelationIdMode.BINARY,
+                ch -> new CoalescingWriter(ch, Integer.MAX_VALUE, Integer.MAX_VALUE, 1, TimeUnit.SECONDS, null));
+        EmbeddedChannel channel = new EmbeddedChannel();
+        queued.setChannel(channel);
+        UpstreamSession idle = session("idle", 0, true);
+
+        ByteBuf body = Unpooled.wrappedBuffer(new byte[1024]);
+        int highWaterMark = channel.config().getWriteBufferHighWaterMark();
+        while (queued.getOutboundBufferedBytes() <= highWaterMark) {
+            queued.write(1L, MessageType.AUTH_REQ, body, false);
+        }
+
+        assertThat(channel.isWritable()).isTrue();
+        assertThat(queued.isWritable()).isFalse();
+        assertThat(new PowerOfTwoChoicesSelector().select(new UpstreamSession[]{queued, idle}, MAX_INFLIGHT))
+                .isSameAs(idle);
+
+        // 큐를 비우면 채널 아웃바운드로 옮겨 가고 그 버퍼는 finishAndReleaseAll이 해제한다
+        body.release();
+        channel.advanceTimeBy(1, TimeUnit.SECONDS);
+        channel.runPendingTasks();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void roundRobin_rotatesAndSkipsFullSessions() {
+        UpstreamSession[] sessions = {session("a", 0, true), session("b", MAX_INFLIGHT, true), session("c", 0, true)};
+        SessionSelector selector = new RoundRobinSelector();
+
+        Set<UpstreamSession> picked = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            picked.add(selector.select(sessions, MAX_INFLIGHT));
+        }
+        assertThat(picked).containsExactlyInAnyOrder(sessions[0], sessions[2]);
+    }
+
+    @Test
+    void latencyAware_sendsLessToSlowSessionAtEqualInflight() {
+        UpstreamSession fast = session("fast", 4, true);
+        UpstreamSession slow = session("slow", 4, true);
+        fast.recordLatency(TimeUnit.MILLISECONDS.toNanos(30));
+        slow.recordLatency(TimeUnit.MILLISECONDS.toNanos(230));
+        UpstreamSession[] sessions = {fast, slow};
+
+        assertThat(new LatencyAwareSelector().select(sessions, MAX_INFLIGHT)).isSameAs(fast);
+    }
+
+    @Test
+    void latencyAware_fallsBackToInflightWithoutSamples() {
+        UpstreamSession busy = session("busy", 8, true);
+        UpstreamSession idle = session("idle", 2, true);
+        busy.recordLatency(TimeUnit.MILLISECONDS.toNanos(1));
+        UpstreamSession[] sessions = {busy, idle};
+
+        assertThat(new LatencyAwareSelector().select(sessions, MAX_INFLIGHT)).isSameAs(idle);
+    }
+
+    @Test
+    void selectors_returnFullSessionRatherThanNull_andNullWhenNoneAvailable() {
+        UpstreamSession[] full = {session("a", MAX_INFLIGHT, true), session("b", MAX_INFLIGHT, true)};
+        UpstreamSession[] down = {session("c", 0, false), session("d", 0, false)};
+
+        for (SessionSelection selection : SessionSelection.values()) {
+            SessionSelector selector = selection.create();
+            assertThat(selector.select(full, MAX_INFLIGHT)).as(selection.name()).isIn((Object[]) full);
+            assertThat(selector.select(down, MAX_INFLIGHT)).as(selection.name()).isNull();
+            assertThat(selector.select(new UpstreamSession[0], MAX_INFLIGHT)).as(selection.name()).isNull();
+        }
+    }
+
+    private static UpstreamSession session(String id, int inflight, boolean active) {
+        UpstreamSession session = new UpstreamSession(id, CorrelationIdMode.ASCII);
+        if (active) {
+            session.setChannel(new EmbeddedChannel());
+        }
+        for (int i = 0; i < inflight; i++) {
+            session.incrementInflight();
+        }
+        return session;
+    }
+}
@@ -0,0 +1,168 @@
+package com.network.gateway.session;
+
+import com.network.gateway.config.GatewayProperties;
+import com.network.gateway.observability.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 스케일링 주기(evaluateScaling)를 한 번씩 직접 돌린다. 연결은 EmbeddedChannel로 바로 성공시키고 횟수만 센다.
+ */
+class UpstreamSessionPoolScalingTest {
+
+    private static final int MAX_INFLIGHT = 10;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<UpstreamSession> downs = new ArrayList<>();
+    private GatewayProperties properties;
+    private StubPool pool;
+
+    @BeforeEach
+    void setUp() {
+        properties = new GatewayProperties();
+        GatewayProperties.Upstream upstream = properties.getUpstream();
+        upstream.setMinSessions(1);
+        upstream.setMaxSessions(2);
+        upstream.setMaxInflightPerSession(MAX_INFLIGHT);
+        upstream.getAdaptiveLimit().setEnabled(false);
+        GatewayProperties.Scaling scaling = upstream.getScaling();
+        scaling.setScaleUpUtilization(0.75);
+        scaling.setScaleDownUtilization(0.25);
+        scaling.setSustainedIntervals(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void scaleUp_requiresSustainedHighUtilization() {
+        start();
+        UpstreamSession first = pool.getAllSessions().get(0);
+        reserve(first, 8);
+
+        tick(2);
+        // 한 번이라도 임계치 아래로 내려가면 연속 횟수를 처음부터 센다
+        release(first, 8);
+        tick(1);
+        reserve(first, 8);
+        tick(2);
+        assertThat(pool.getAllSessions()).hasSize(1);
+
+        tick(1);
+        assertThat(pool.getAllSessions()).hasSize(2);
+        assertThat(pool.connects).hasSize(2);
+        assertThat(registry.get("session.scale.up").counter().count()).isEqualTo(1);
+
+        // maxSessions에 도달하면 더 열지 않는다
+        tick(6);
+        assertThat(pool.getAllSessions()).hasSize(2);
+    }
+
+    @Test
+    void scaleDown_neverDropsBelowMinSessions() {
+        start();
+        UpstreamSession first = pool.getAllSessions().get(0);
+        reserve(first, 8);
+        tick(3);
+        release(first, 8);
+        assertThat(pool.getAllSessions()).hasSize(2);
+
+        tick(3);
+        assertThat(draining()).hasSize(1);
+        assertThat(registry.get("session.scale.down").counter().count()).isEqualTo(1);
+
+        // 유휴 상태가 계속돼도 minSessions(1) 아래로는 drain 하지 않는다
+        tick(10);
+        assertThat(pool.getAllSessions()).hasSize(1);
+        assertThat(draining()).isEmpty();
+        assertThat(registry.get("session.scale.down").counter().count()).isEqualTo(1);
+        assertThat(pool.hasActiveSession()).isTrue();
+    }
+
+    @Test
+    void drainingSession_isNotSelected_closesAtZeroInflight_andIsNotReconnected() {
+        start();
+        UpstreamSession first = pool.getAllSessions().get(0);
+        reserve(first, 8);
+        tick(3);
+        UpstreamSession second = pool.getAllSessions().get(1);
+
+        // 둘 다 1개씩 남기면 inflight가 같아 앞쪽(first)이 drain 대상이 된다
+        release(first, 7);
+        reserve(second, 1);
+        tick(3);
+        assertThat(first.getState()).isEqualTo(SessionState.DRAINING);
+        assertThat(first.isActive()).isFalse();
+        for (int i = 0; i < 100; i++) {
+            assertThat(pool.selectSession()).isSameAs(second);
+        }
+
+        // 보낸 요청이 남아 있는 동안은 닫지 않는다
+        tick(1);
+        assertThat(first.getChannel().isOpen()).isTrue();
+        assertThat(pool.getAllSessions()).contains(first);
+
+        release(first, 1);
+        tick(1);
+        assertThat(pool.getAllSessions()).containsExactly(second);
+        assertThat(first.getState()).isEqualTo(SessionState.DOWN);
+        assertThat(downs).containsExactly(first);
+        assertThat(pool.connects).containsExactly(first, second);
+    }
+
+    private void start() {
+        pool = new StubPool(properties, new GatewayMetrics(registry));
+        pool.addSessionDownListener(downs::add);
+        pool.openInitialSessions();
+        assertThat(pool.getAllSessions()).hasSize(1);
+    }
+
+    private void tick(int intervals) {
+        for (int i = 0; i < intervals; i++) {
+            pool.evaluateScaling();
+        }
+    }
+
+    private List<UpstreamSession> draining() {
+        return pool.getAllSessions().stream()
+                .filter(session -> session.getState() == SessionState.DRAINING)
+                .toList();
+    }
+
+    private static void reserve(UpstreamSession session, int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(session.tryReserve(MAX_INFLIGHT)).isTrue();
+        }
+    }
+
+    private static void release(UpstreamSession session, int count) {
+        for (int i = 0; i < count; i++) {
+            session.decrementInflight();
+        }
+    }
+
+    private static final class StubPool extends UpstreamSessionPool {
+
+        private final List<UpstreamSession> connects = new ArrayList<>();
+
+        StubPool(GatewayProperties properties, GatewayMetrics metrics) {
+            super(properties, null, metrics);
+        }
+
+        @Override
+        void connect(UpstreamSession session) {
+            connects.add(session);
+            onConnected(session, new EmbeddedChannel());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.network.cardsim.config;
 
+import com.network.common.netty.AllocatorOptions;
+import com.network.common.netty.NettyTransport;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -15,4 +17,60 @@ public class SimulatorProperties {
     private double errorRate = 0.01;
     private int disconnectEverySec = 0;
     private double outOfOrderRate = 0.0;
+    private WriteCoalescing writeCoalescing = new WriteCoalescing();
+    private SlowConnection slowConnection = new SlowConnection();
+    private Transport transport = new Transport();
+    private Allocator allocator = new Allocator();
+
+    @Getter
+    @Setter
+    public static class WriteCoalescing {
+        private boolean enabled = false;
+        private int maxFrames = 64;
+        private int maxBytes = 65536;
+        private long maxDelayMicros = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class SlowConnection {
+        // N번째로 accept한 연결마다 느리게 응답 (0이면 비활성)
+        private int everyNth = 0;
+        private int extraLatencyMs = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Transport {
+        // native를 쓸 수 없으면 IO_URING → EPOLL → NIO 순으로 대체
+        private NettyTransport type = NettyTransport.NIO;
+        // 0이면 Netty 기본값 (코어 수 × 2)
+        private int workerThreads = 0;
+        // 이하 EPOLL에서만 적용
+        private boolean tcpQuickAck = false;
+        private int busyPollMicros = 0;
+        private boolean edgeTriggered = true;
+
+        public NettyTransport.NativeOptions nativeOptions() {
+            return new NettyTransport.NativeOptions(tcpQuickAck, busyPollMicros, edgeTriggered);
+        }
+    }
+
+    // -1은 Netty 기본값
+    @Getter
+    @Setter
+    public static class Allocator {
+        private boolean pooled = true;
+        private boolean preferDirect = true;
+        private int heapArenas = AllocatorOptions.NETTY_DEFAULT;
+        private int directArenas = AllocatorOptions.NETTY_DEFAULT;
+        private int smallCacheSize = AllocatorOptions.NETTY_DEFAULT;
+        private int normalCacheSize = AllocatorOptions.NETTY_DEFAULT;
+        private boolean useCacheForAllThreads = false;
+
+        public AllocatorOptions options() {
+            return new AllocatorOptions(pooled, preferDirect, heapArenas, directArenas,
+                    smallCacheSize, normalCacheSize, useCacheForAllThreads);
+        }
+    }
 }
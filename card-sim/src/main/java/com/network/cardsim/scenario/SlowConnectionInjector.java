@@ -0,0 +1,35 @@
+package com.network.cardsim.scenario;
+
+import com.network.cardsim.config.SimulatorProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 특정 연결만 느린 경로를 흉내 낸다 (NIC 큐, 중간 장비 등).
+ * accept 순서로 N번째 연결마다 모든 응답에 고정 지연을 더한다. 게이트웨이의 지연 기반 라우팅 확인용.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class SlowConnectionInjector {
+
+    private final SimulatorProperties properties;
+    private final AtomicLong accepted = new AtomicLong();
+
+    /**
+     * 새 연결의 추가 지연을 정한다. 연결마다 한 번 호출한다.
+     * @return 이 연결의 모든 응답에 더할 지연 (ms), 느린 연결이 아니면 0
+     */
+    public long extraDelayForNewConnection() {
+        SimulatorProperties.SlowConnection config = properties.getSlowConnection();
+        long index = accepted.incrementAndGet();
+        if (config.getEveryNth() <= 0 || index % config.getEveryNth() != 0) {
+            return 0;
+        }
+        log.info("SlowConnection injection: connection #{} gets +{}ms", index, config.getExtraLatencyMs());
+        return config.getExtraLatencyMs();
+    }
+}
@@ -1,18 +1,22 @@
 package com.network.cardsim.server;
 
+import com.network.cardsim.config.SimulatorProperties;
 import com.network.cardsim.scenario.DisconnectInjector;
 import com.network.cardsim.scenario.ErrorInjector;
 import com.network.cardsim.scenario.LatencyInjector;
 import com.network.cardsim.scenario.OutOfOrderInjector;
+import com.network.cardsim.scenario.SlowConnectionInjector;
+import com.network.common.netty.CoalescingWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-@RequiredArgsConstructor
 @Component
 public class CardSimChannelInitializer extends ChannelInitializer<SocketChannel> {
 
@@ -20,7 +24,31 @@ public class CardSimChannelInitializer extends ChannelInitializer<SocketChannel>
     private final ErrorInjector errorInjector;
     private final OutOfOrderInjector outOfOrderInjector;
     private final DisconnectInjector disconnectInjector;
+    private final SlowConnectionInjector slowConnectionInjector;
     private final ScheduledExecutorService scheduler;
+    private final SimulatorProperties properties;
+    private final DistributionSummary flushFrames;
+    private final DistributionSummary flushBytes;
+
+    public CardSimChannelInitializer(LatencyInjector latencyInjector, ErrorInjector errorInjector,
+                                     OutOfOrderInjector outOfOrderInjector, DisconnectInjector disconnectInjector,
+                                     SlowConnectionInjector slowConnectionInjector, ScheduledExecutorService scheduler, SimulatorProperties properties,
+                                     MeterRegistry registry) {
+        this.latencyInjector = latencyInjector;
+        this.errorInjector = errorInjector;
+        this.outOfOrderInjector = outOfOrderInjector;
+        this.disconnectInjector = disconnectInjector;
+        this.slowConnectionInjector = slowConnectionInjector;
+        this.scheduler = scheduler;
+        this.properties = properties;
+        this.flushFrames = DistributionSummary.builder("cardsim.flush.frames")
+                .description("Frames written per response flush")
+                .register(registry);
+        this.flushBytes = DistributionSummary.builder("cardsim.flush.bytes")
+                .description("Bytes written per response flush (approximately per write syscall)")
+                .baseUnit("bytes")
+                .register(registry);
+    }
 
     @Override
     protected void initChannel(SocketChannel ch) {
@@ -29,6 +57,19 @@ public class CardSimChannelInitializer extends ChannelInitializer<SocketChannel>
         ch.pipeline()
                 .addLast("frameDecoder", new LengthFieldBasedFrameDecoder(
                         1024 * 1024, 0, 4, 0, 0))
-                .addLast("handler", new CardSimHandler(latencyInjector, errorInjector, outOfOrderInjector, scheduler));
+                .addLast("handler", new CardSimHandler(latencyInjector, errorInjector, outOfOrderInjector, scheduler,
+                        newWriter(ch), slowConnectionInjector.extraDelayForNewConnection()));
+    }
+
+    private CoalescingWriter newWriter(SocketChannel ch) {
+        SimulatorProperties.WriteCoalescing config = properties.getWriteCoalescing();
+        if (!config.isEnabled()) {
+            return null;
+        }
+        return new CoalescingWriter(ch, config.getMaxFrames(), config.getMaxBytes(),
+                config.getMaxDelayMicros(), TimeUnit.MICROSECONDS, (frames, bytes) -> {
+                    flushFrames.record(frames);
+                    flushBytes.record(bytes);
+                });
     }
 }
@@ -4,8 +4,11 @@ import com.network.cardsim.scenario.ErrorInjector;
 import com.network.cardsim.scenario.LatencyInjector;
 import com.network.cardsim.scenario.OutOfOrderInjector;
 import com.network.common.dto.TransactionStatus;
-import com.network.common.protocol.Frame;
+import com.network.common.netty.CoalescingWriter;
+import com.network.common.protocol.BodyEncoding;
+import com.network.common.protocol.CorrelationIdMode;
 import com.network.common.protocol.FrameCodec;
+import com.network.common.protocol.FrameView;
 import com.network.common.protocol.MessageType;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -13,7 +16,6 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -25,50 +27,54 @@ public class CardSimHandler extends SimpleChannelInboundHandler<ByteBuf> {
     private final ErrorInjector errorInjector;
     private final OutOfOrderInjector outOfOrderInjector;
     private final ScheduledExecutorService scheduler;
+    // null이면 응답마다 writeAndFlush
+    private final CoalescingWriter writer;
+    // 이 연결의 모든 응답에 더하는 고정 지연 (느린 연결 시뮬레이션)
+    private final long extraDelayMs;
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
-        Frame requestFrame = FrameCodec.decode(msg);
-        log.debug("Received request: correlationId={}, type={}", requestFrame.correlationId(), requestFrame.messageType());
+        // 요청 바디는 응답 생성에 쓰지 않으므로 헤더와 바디 형식만 읽고 뷰는 바로 해제한다.
+        // CORR_ID는 8바이트 불투명 값으로 그대로 되돌려주므로 게이트웨이의 ASCII/BINARY 모드와 무관하다.
+        // 응답 바디는 요청과 같은 형식(TEXT/BINARY)으로 보낸다.
+        FrameView requestFrame = FrameCodec.decodeRetained(msg, CorrelationIdMode.BINARY);
+        long correlationId = requestFrame.correlationId();
+        MessageType requestType = requestFrame.messageType();
+        BodyEncoding encoding = BodyEncoding.of(requestFrame.body());
+        requestFrame.release();
+        log.debug("Received request: correlationId={}, type={}", correlationId, requestType);
 
-        long delay = latencyInjector.calculateDelay();
+        long delay = latencyInjector.calculateDelay() + extraDelayMs;
 
         if (outOfOrderInjector.shouldReorder()) {
             delay += outOfOrderInjector.reorderDelay();
-            log.debug("Out-of-order injection: correlationId={}, extra delay={}ms", requestFrame.correlationId(), delay);
+            log.debug("Out-of-order injection: correlationId={}, extra delay={}ms", correlationId, delay);
         }
 
         scheduler.schedule(() -> {
             if (!ctx.channel().isActive()) {
                 return;
             }
-            Frame response = buildResponse(requestFrame);
-            ByteBuf encoded = FrameCodec.encode(response);
-            ctx.writeAndFlush(encoded);
-            log.debug("Sent response: correlationId={}, status={}", response.correlationId(),
-                    new String(response.body(), StandardCharsets.UTF_8).split("\\|")[0]);
+            boolean declined = errorInjector.shouldInjectError();
+            TransactionStatus status = declined ? TransactionStatus.DECLINED : TransactionStatus.APPROVED;
+            ByteBuf responseBody = ctx.alloc().heapBuffer();
+            ByteBuf encoded;
+            try {
+                encoding.writeResponse(responseBody, status, declined ? "INSUFFICIENT_FUNDS" : "OK");
+                encoded = FrameCodec.encode(ctx.alloc(), CorrelationIdMode.BINARY, correlationId,
+                        getResponseType(requestType), responseBody);
+            } finally {
+                responseBody.release();
+            }
+            if (writer != null) {
+                writer.write(encoded);
+            } else {
+                ctx.writeAndFlush(encoded);
+            }
+            log.debug("Sent response: correlationId={}, status={}", correlationId, status);
         }, delay, TimeUnit.MILLISECONDS);
     }
 
-    private Frame buildResponse(Frame request) {
-        String correlationId = request.correlationId();
-        MessageType responseType = getResponseType(request.messageType());
-
-        String status;
-        String reasonCode;
-
-        if (errorInjector.shouldInjectError()) {
-            status = TransactionStatus.DECLINED.name();
-            reasonCode = "INSUFFICIENT_FUNDS";
-        } else {
-            status = TransactionStatus.APPROVED.name();
-            reasonCode = "OK";
-        }
-
-        byte[] responseBody = (status + "|" + reasonCode).getBytes(StandardCharsets.UTF_8);
-        return new Frame(correlationId, responseType, responseBody);
-    }
-
     private MessageType getResponseType(MessageType requestType) {
         return switch (requestType) {
             case AUTH_REQ -> MessageType.AUTH_RES;
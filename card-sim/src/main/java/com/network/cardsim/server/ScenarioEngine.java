@@ -1,12 +1,12 @@
 package com.network.cardsim.server;
 
 import com.network.cardsim.config.SimulatorProperties;
+import com.network.common.netty.NettyTransport;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -27,20 +27,28 @@ public class ScenarioEngine {
 
     @PostConstruct
     public void start() {
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+        SimulatorProperties.Transport transportProperties = properties.getTransport();
+        NettyTransport requested = transportProperties.getType();
+        NettyTransport transport = requested.resolve((fallback, cause) ->
+                log.warn("{} transport unavailable ({}), falling back to {}", requested, cause, fallback));
+        bossGroup = transport.newEventLoopGroup(1);
+        workerGroup = transport.newEventLoopGroup(transportProperties.getWorkerThreads());
+        ByteBufAllocator allocator = properties.getAllocator().options().create();
 
         ServerBootstrap bootstrap = new ServerBootstrap()
                 .group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(transport.serverSocketChannel())
                 .childHandler(channelInitializer)
                 .option(ChannelOption.SO_BACKLOG, 128)
+                .option(ChannelOption.ALLOCATOR, allocator)
+                .childOption(ChannelOption.ALLOCATOR, allocator)
                 .childOption(ChannelOption.SO_KEEPALIVE, true)
                 .childOption(ChannelOption.TCP_NODELAY, true);
+        transport.configure(bootstrap, transportProperties.nativeOptions());
 
         try {
             serverFuture = bootstrap.bind(properties.getPort()).sync();
-            log.info("Card Network Simulator started on port {}", properties.getPort());
+            log.info("Card Network Simulator started on port {} ({} transport)", properties.getPort(), transport);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Failed to start card-sim server", e);
@@ -0,0 +1,57 @@
+package com.network.common.netty;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+
+/**
+ * 채널 ByteBuf allocator 설정. 부트스트랩의 ChannelOption.ALLOCATOR(서버는 child에도)로 건다.
+ * 숫자 항목이 {@link #NETTY_DEFAULT}면 Netty 기본값(io.netty.allocator.* 시스템 프로퍼티 반영)을 쓴다.
+ *
+ * @param pooled                false면 UnpooledByteBufAllocator
+ * @param preferDirect          ioBuffer/buffer가 다이렉트 메모리를 우선할지
+ * @param heapArenas            힙 arena 수 (0이면 힙 풀링 안 함)
+ * @param directArenas          다이렉트 arena 수 (0이면 다이렉트 풀링 안 함)
+ * @param smallCacheSize        스레드 캐시의 small 크기 클래스당 보관 개수
+ * @param normalCacheSize       스레드 캐시의 normal 크기 클래스당 보관 개수
+ * @param useCacheForAllThreads false면 FastThreadLocalThread(이벤트 루프)만 스레드 캐시를 쓴다
+ */
+public record AllocatorOptions(boolean pooled, boolean preferDirect, int heapArenas, int directArenas,
+                               int smallCacheSize, int normalCacheSize, boolean useCacheForAllThreads) {
+
+    public static final int NETTY_DEFAULT = -1;
+
+    /**
+     * 설정대로 allocator를 만든다. 풀링이면서 모든 항목이 Netty 기본값이면 새로 만들지 않고
+     * {@link PooledByteBufAllocator#DEFAULT}를 그대로 써서 다른 코드(ByteBufAllocator.DEFAULT 사용처)와 arena를 공유한다.
+     */
+    public ByteBufAllocator create() {
+        if (!pooled) {
+            return new UnpooledByteBufAllocator(preferDirect);
+        }
+        if (isNettyDefault()) {
+            return PooledByteBufAllocator.DEFAULT;
+        }
+        return new PooledByteBufAllocator(preferDirect,
+                orDefault(heapArenas, PooledByteBufAllocator.defaultNumHeapArena()),
+                orDefault(directArenas, PooledByteBufAllocator.defaultNumDirectArena()),
+                PooledByteBufAllocator.defaultPageSize(),
+                PooledByteBufAllocator.defaultMaxOrder(),
+                orDefault(smallCacheSize, PooledByteBufAllocator.defaultSmallCacheSize()),
+                orDefault(normalCacheSize, PooledByteBufAllocator.defaultNormalCacheSize()),
+                useCacheForAllThreads);
+    }
+
+    private boolean isNettyDefault() {
+        return preferDirect == PooledByteBufAllocator.defaultPreferDirect()
+                && heapArenas == NETTY_DEFAULT
+                && directArenas == NETTY_DEFAULT
+                && smallCacheSize == NETTY_DEFAULT
+                && normalCacheSize == NETTY_DEFAULT
+                && useCacheForAllThreads == PooledByteBufAllocator.defaultUseCacheForAllThreads();
+    }
+
+    private static int orDefault(int value, int nettyDefault) {
+        return value == NETTY_DEFAULT ? nettyDefault : value;
+    }
+}
@@ -0,0 +1,166 @@
+package com.network.common.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.internal.PlatformDependent;
+
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채널 하나에 대한 쓰기 합치기(write coalescing).
+ * 프레임마다 writeAndFlush(= write syscall) 하지 않고 MPSC 큐에 모았다가 이벤트 루프에서 write 후 한 번에 flush 한다.
+ *
+ * <p>flush 시점:
+ * <ul>
+ *   <li>maxDelay가 0이면 이벤트 루프의 다음 턴, 0보다 크면 첫 프레임이 들어온 뒤 maxDelay 경과 시</li>
+ *   <li>쌓인 프레임 수가 maxFrames 또는 바이트 수가 maxBytes에 도달하면 대기 없이 즉시</li>
+ * </ul>
+ *
+ * <p>{@link #write(ByteBuf)}는 어느 스레드에서나 호출할 수 있고, 넘긴 버퍼의 소유권은 writer로 넘어간다
+ * (전송 후 Netty가 해제하고, 채널이 닫혀 있으면 writer가 해제한다).
+ */
+public final class CoalescingWriter {
+
+    /**
+     * flush 한 번마다 호출된다. 이벤트 루프 스레드에서 호출되므로 가볍게 유지한다.
+     */
+    @FunctionalInterface
+    public interface FlushListener {
+        void onFlush(int frames, long bytes);
+    }
+
+    private final Channel channel;
+    private final EventLoop eventLoop;
+    private final int maxFrames;
+    private final int maxBytes;
+    private final long maxDelayNanos;
+    private final FlushListener listener;
+
+    private final Queue<ByteBuf> queue = PlatformDependent.newMpscQueue();
+    private final AtomicInteger queuedFrames = new AtomicInteger();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicBoolean immediateDrainScheduled = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+
+    public CoalescingWriter(Channel channel, int maxFrames, int maxBytes, long maxDelay, TimeUnit unit,
+                            FlushListener listener) {
+        if (maxFrames <= 0 || maxBytes <= 0 || maxDelay < 0) {
+            throw new IllegalArgumentException(
+                    "maxFrames/maxBytes must be positive and maxDelay non-negative: "
+                            + maxFrames + "/" + maxBytes + "/" + maxDelay);
+        }
+        this.channel = channel;
+        this.eventLoop = channel.eventLoop();
+        this.maxFrames = maxFrames;
+        this.maxBytes = maxBytes;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.listener = listener;
+    }
+
+    public void write(ByteBuf frame) {
+        int size = frame.readableBytes();
+        queue.offer(frame);
+        int frames = queuedFrames.incrementAndGet();
+        long bytes = queuedBytes.addAndGet(size);
+
+        // 이미 예약된 drain이 있던 채로 루프가 끝났다면 플래그가 남아 있어 스케줄 시도조차 하지 않는다
+        if (eventLoop.isShutdown()) {
+            discardQueued();
+            return;
+        }
+        try {
+            if (frames >= maxFrames || bytes >= maxBytes) {
+                if (immediateDrainScheduled.compareAndSet(false, true)) {
+                    eventLoop.execute(drainTask);
+                }
+            } else if (drainScheduled.compareAndSet(false, true)) {
+                if (maxDelayNanos == 0) {
+                    eventLoop.execute(drainTask);
+                } else {
+                    eventLoop.schedule(drainTask, maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // 이벤트 루프가 종료 중이면 drain이 다시 돌지 않으므로 큐에 남은 프레임은 여기서 해제한다
+            discardQueued();
+        }
+    }
+
+    public int pendingFrames() {
+        return queuedFrames.get();
+    }
+
+    /**
+     * 큐에 있고 아직 채널에 write 되지 않은 바이트 수. 채널의 아웃바운드 버퍼(writability)에는 잡히지 않는다.
+     */
+    public long queuedBytes() {
+        return queuedBytes.get();
+    }
+
+    // 이벤트 루프에서만 실행된다. 플래그를 먼저 내려, 비우는 도중 들어온 프레임은 다음 drain이 처리하게 한다.
+    private void drain() {
+        drainScheduled.set(false);
+        immediateDrainScheduled.set(false);
+
+        boolean active = channel.isActive();
+        int drainedFrames = 0;
+        long drainedBytes = 0;
+        int frames = 0;
+        long bytes = 0;
+        ByteBuf frame;
+        while ((frame = queue.poll()) != null) {
+            int size = frame.readableBytes();
+            drainedFrames++;
+            drainedBytes += size;
+            if (!active) {
+                frame.release();
+                continue;
+            }
+            channel.write(frame, channel.voidPromise());
+            frames++;
+            bytes += size;
+            if (frames >= maxFrames || bytes >= maxBytes) {
+                flush(frames, bytes);
+                frames = 0;
+                bytes = 0;
+            }
+        }
+        if (frames > 0) {
+            flush(frames, bytes);
+        }
+
+        queuedFrames.addAndGet(-drainedFrames);
+        queuedBytes.addAndGet(-drainedBytes);
+    }
+
+    // 루프가 종료된 뒤 거절당한 호출자들끼리만 경합하므로 synchronized로 큐의 소비자를 하나로 유지한다
+    private synchronized void discardQueued() {
+        int discardedFrames = 0;
+        long discardedBytes = 0;
+        ByteBuf frame;
+        while ((frame = queue.poll()) != null) {
+            discardedFrames++;
+            discardedBytes += frame.readableBytes();
+            frame.release();
+        }
+        queuedFrames.addAndGet(-discardedFrames);
+        queuedBytes.addAndGet(-discardedBytes);
+        // 이후 write도 스케줄을 다시 시도해 같은 방식으로 해제되게 한다
+        drainScheduled.set(false);
+        immediateDrainScheduled.set(false);
+    }
+
+    private void flush(int frames, long bytes) {
+        channel.flush();
+        if (listener != null) {
+            listener.onFlush(frames, bytes);
+        }
+    }
+}
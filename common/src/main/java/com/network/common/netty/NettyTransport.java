@@ -0,0 +1,201 @@
+package com.network.common.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 이벤트 루프/채널 구현(transport) 선택.
+ * <ul>
+ *   <li>NIO: JDK Selector 기반. 어디서나 동작한다.</li>
+ *   <li>EPOLL: Linux native epoll. TCP_QUICKACK, SO_BUSY_POLL, edge/level-triggered 옵션을 쓸 수 있다.</li>
+ *   <li>IO_URING: Linux 5.9+ io_uring (netty incubator).</li>
+ * </ul>
+ * native 라이브러리를 쓸 수 없는 환경(macOS, 커널/라이브러리 부재)에서는 {@link #resolve()}가 IO_URING → EPOLL → NIO 순으로 내려간다.
+ * 이벤트 루프 그룹과 채널 클래스는 반드시 같은 transport에서 가져와야 한다.
+ */
+public enum NettyTransport {
+
+    NIO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public Throwable unavailabilityCause() {
+            return null;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new NioEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends SocketChannel> socketChannel() {
+            return NioSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverSocketChannel() {
+            return NioServerSocketChannel.class;
+        }
+    },
+
+    EPOLL {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public Throwable unavailabilityCause() {
+            return Epoll.unavailabilityCause();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new EpollEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends SocketChannel> socketChannel() {
+            return EpollSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverSocketChannel() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public void configure(Bootstrap bootstrap, NativeOptions options) {
+            bootstrap.option(EpollChannelOption.EPOLL_MODE, options.epollMode());
+            bootstrap.option(EpollChannelOption.TCP_QUICKACK, options.tcpQuickAck());
+            if (options.busyPollMicros() > 0) {
+                bootstrap.option(EpollChannelOption.SO_BUSY_POLL, options.busyPollMicros());
+            }
+        }
+
+        @Override
+        public void configure(ServerBootstrap bootstrap, NativeOptions options) {
+            bootstrap.option(EpollChannelOption.EPOLL_MODE, options.epollMode());
+            bootstrap.childOption(EpollChannelOption.EPOLL_MODE, options.epollMode());
+            bootstrap.childOption(EpollChannelOption.TCP_QUICKACK, options.tcpQuickAck());
+            if (options.busyPollMicros() > 0) {
+                bootstrap.childOption(EpollChannelOption.SO_BUSY_POLL, options.busyPollMicros());
+            }
+        }
+    },
+
+    IO_URING {
+        @Override
+        public boolean isAvailable() {
+            return IOUring.isAvailable();
+        }
+
+        @Override
+        public Throwable unavailabilityCause() {
+            return IOUring.unavailabilityCause();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new IOUringEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends SocketChannel> socketChannel() {
+            return IOUringSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends ServerSocketChannel> serverSocketChannel() {
+            return IOUringServerSocketChannel.class;
+        }
+    };
+
+    /**
+     * epoll 전용 소켓 옵션. 다른 transport에서는 무시된다.
+     *
+     * @param tcpQuickAck    delayed ACK 없이 바로 ACK (요청/응답이 작은 프레임일 때 지연 감소)
+     * @param busyPollMicros 0보다 크면 SO_BUSY_POLL: 수신 시 NIC 큐를 이 시간만큼 바쁘게 폴링 (CPU를 더 쓰는 대신 지연 감소)
+     * @param edgeTriggered  false면 level-triggered
+     */
+    public record NativeOptions(boolean tcpQuickAck, int busyPollMicros, boolean edgeTriggered) {
+
+        public static final NativeOptions DEFAULT = new NativeOptions(false, 0, true);
+
+        EpollMode epollMode() {
+            return edgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+        }
+    }
+
+    public abstract boolean isAvailable();
+
+    /**
+     * 쓸 수 없는 이유. 쓸 수 있으면 null.
+     */
+    public abstract Throwable unavailabilityCause();
+
+    /**
+     * @param threads 0이면 Netty 기본값 (코어 수 × 2)
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int threads);
+
+    public abstract Class<? extends SocketChannel> socketChannel();
+
+    public abstract Class<? extends ServerSocketChannel> serverSocketChannel();
+
+    /**
+     * 클라이언트 채널에 transport 전용 옵션을 건다. 기본은 아무것도 하지 않는다.
+     */
+    public void configure(Bootstrap bootstrap, NativeOptions options) {
+    }
+
+    /**
+     * 서버(listen)와 accept한 child 채널에 transport 전용 옵션을 건다. 기본은 아무것도 하지 않는다.
+     */
+    public void configure(ServerBootstrap bootstrap, NativeOptions options) {
+    }
+
+    /**
+     * 이 transport를 쓸 수 있으면 자신을, 아니면 쓸 수 있는 다음 transport를 돌려준다 (IO_URING → EPOLL → NIO).
+     */
+    public NettyTransport resolve() {
+        if (isAvailable()) {
+            return this;
+        }
+        return this == IO_URING ? EPOLL.resolve() : NIO;
+    }
+
+    /**
+     * {@link #resolve()}와 같고, 다른 transport로 내려갔으면 (대체된 transport, 이 transport를 쓸 수 없는 이유)로 onFallback을 부른다.
+     * common은 로깅 구현에 의존하지 않으므로 대체 로그는 호출자가 onFallback에서 남긴다.
+     */
+    public NettyTransport resolve(BiConsumer<NettyTransport, Throwable> onFallback) {
+        NettyTransport resolved = resolve();
+        if (resolved != this) {
+            onFallback.accept(resolved, unavailabilityCause());
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,242 @@
+package com.network.common.protocol;
+
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.TransactionStatus;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 프레임 BODY 인코딩 방식.
+ * <ul>
+ *   <li>TEXT: '|' 구분 UTF-8 문자열 (기존 호환). 요청 merchantId|amount|currency|clientTxId|payload, 응답 status|reasonCode.</li>
+ *   <li>BINARY: 버전 바이트로 시작하는 고정 레이아웃.
+ *     요청 [VER(1)][AMOUNT(8)][STR merchantId][STR currency][STR clientTxId][STR payload],
+ *     응답 [VER(1)][STATUS(1)][REASON_ID(1)] (REASON_ID가 0이면 뒤에 [STR reasonCode]).
+ *     STR은 [LEN(2)][UTF-8 바이트]이다.</li>
+ * </ul>
+ * 버전 바이트 0x81은 UTF-8 문자열의 첫 바이트가 될 수 없으므로 수신 측은 {@link #of(ByteBuf)}로 방식을 구분한다.
+ * 읽기는 바디의 readerIndex를 바꾸지 않는다.
+ */
+public enum BodyEncoding {
+
+    TEXT {
+        @Override
+        public void writeRequest(ByteBuf buf, AuthorizeRequest request) {
+            writeText(buf, request.merchantId());
+            buf.writeByte(SEPARATOR);
+            ByteBufUtil.writeAscii(buf, Long.toString(request.amount()));
+            buf.writeByte(SEPARATOR);
+            writeText(buf, request.currency());
+            buf.writeByte(SEPARATOR);
+            writeText(buf, request.clientTxId());
+            buf.writeByte(SEPARATOR);
+            writeText(buf, request.payload());
+        }
+
+        @Override
+        public void writeResponse(ByteBuf buf, TransactionStatus status, String reasonCode) {
+            ByteBufUtil.writeAscii(buf, status.name());
+            buf.writeByte(SEPARATOR);
+            writeText(buf, reasonCode);
+        }
+
+        @Override
+        public TransactionStatus readStatus(ByteBuf body) {
+            if (!body.isReadable()) {
+                return TransactionStatus.ERROR;
+            }
+            int start = body.readerIndex();
+            int end = body.writerIndex();
+            int sep = body.indexOf(start, end, SEPARATOR);
+            String status = body.toString(start, (sep >= 0 ? sep : end) - start, StandardCharsets.UTF_8);
+            try {
+                return TransactionStatus.valueOf(status);
+            } catch (IllegalArgumentException e) {
+                return TransactionStatus.ERROR;
+            }
+        }
+
+        @Override
+        public String readReasonCode(ByteBuf body) {
+            if (!body.isReadable()) {
+                return "UNKNOWN";
+            }
+            int start = body.readerIndex();
+            int end = body.writerIndex();
+            int sep = body.indexOf(start, end, SEPARATOR);
+            if (sep < 0) {
+                return "OK";
+            }
+            int next = body.indexOf(sep + 1, end, SEPARATOR);
+            return body.toString(sep + 1, (next >= 0 ? next : end) - sep - 1, StandardCharsets.UTF_8);
+        }
+    },
+
+    BINARY {
+        @Override
+        public void writeRequest(ByteBuf buf, AuthorizeRequest request) {
+            buf.writeByte(BINARY_V1);
+            buf.writeLong(request.amount());
+            writeString(buf, request.merchantId());
+            writeString(buf, request.currency());
+            writeString(buf, request.clientTxId());
+            writeString(buf, request.payload());
+        }
+
+        @Override
+        public boolean canEncode(AuthorizeRequest request) {
+            return fitsString(request.merchantId())
+                    && fitsString(request.currency())
+                    && fitsString(request.clientTxId())
+                    && fitsString(request.payload());
+        }
+
+        @Override
+        public void writeResponse(ByteBuf buf, TransactionStatus status, String reasonCode) {
+            buf.writeByte(BINARY_V1);
+            buf.writeByte(statusCode(status));
+            int reasonId = reasonId(reasonCode);
+            buf.writeByte(reasonId);
+            if (reasonId == 0) {
+                writeString(buf, reasonCode);
+            }
+        }
+
+        @Override
+        public TransactionStatus readStatus(ByteBuf body) {
+            if (body.readableBytes() < BINARY_RESPONSE_HEADER) {
+                return TransactionStatus.ERROR;
+            }
+            return statusOf(body.getByte(body.readerIndex() + 1));
+        }
+
+        @Override
+        public String readReasonCode(ByteBuf body) {
+            if (body.readableBytes() < BINARY_RESPONSE_HEADER) {
+                return "UNKNOWN";
+            }
+            int index = body.readerIndex() + 2;
+            int reasonId = body.getUnsignedByte(index);
+            if (reasonId > 0 && reasonId <= REASON_CODES.length) {
+                return REASON_CODES[reasonId - 1];
+            }
+            // 표에 없는 코드만 문자열로 읽는다
+            if (body.readableBytes() < BINARY_RESPONSE_HEADER + STRING_LENGTH_FIELD) {
+                return "UNKNOWN";
+            }
+            int length = body.getUnsignedShort(index + 1);
+            // 잘린 바디: LEN이 남은 바이트보다 길면 읽지 않는다
+            if (length > body.readableBytes() - BINARY_RESPONSE_HEADER - STRING_LENGTH_FIELD) {
+                return "UNKNOWN";
+            }
+            return body.toString(index + 1 + STRING_LENGTH_FIELD, length, StandardCharsets.UTF_8);
+        }
+    };
+
+    /** BINARY v1 바디의 첫 바이트 */
+    public static final byte BINARY_V1 = (byte) 0x81;
+    /** BINARY STR 필드 하나의 최대 UTF-8 바이트 수 (LEN 2바이트) */
+    public static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private static final byte SEPARATOR = '|';
+    private static final int BINARY_RESPONSE_HEADER = 3;
+    private static final int STRING_LENGTH_FIELD = 2;
+
+    // 자주 쓰는 reason code는 1바이트 id로 보낸다. id = 인덱스 + 1, 0은 문자열을 뒤에 싣는다는 뜻이다.
+    // 순서를 바꾸면 wire 호환이 깨지므로 뒤에만 추가한다.
+    private static final String[] REASON_CODES = {
+            "OK",
+            "INSUFFICIENT_FUNDS",
+            "DO_NOT_HONOR",
+            "INVALID_MERCHANT",
+            "SYSTEM_ERROR",
+            // 게이트웨이가 만드는 실패 사유 (Frame ingress 실패 응답)
+            "CAPACITY_EXCEEDED",
+            "QUEUE_TIMEOUT",
+            "REQUEST_TIMEOUT",
+            "DEADLINE_EXCEEDED",
+            "UPSTREAM_DOWN",
+            "WRITE_FAILED",
+            "PENDING_FULL"
+    };
+
+    public abstract void writeRequest(ByteBuf buf, AuthorizeRequest request);
+
+    /**
+     * 요청을 이 방식으로 인코딩할 수 있는지. 인코딩 전에 ingress에서 확인해 400으로 돌려보낸다.
+     */
+    public boolean canEncode(AuthorizeRequest request) {
+        return true;
+    }
+
+    public abstract void writeResponse(ByteBuf buf, TransactionStatus status, String reasonCode);
+
+    public abstract TransactionStatus readStatus(ByteBuf body);
+
+    public abstract String readReasonCode(ByteBuf body);
+
+    /**
+     * 수신한 바디의 인코딩. 첫 바이트가 버전 바이트면 BINARY, 아니면 TEXT로 본다.
+     */
+    public static BodyEncoding of(ByteBuf body) {
+        return body.isReadable() && body.getByte(body.readerIndex()) == BINARY_V1 ? BINARY : TEXT;
+    }
+
+    private static void writeText(ByteBuf buf, String value) {
+        if (value != null) {
+            ByteBufUtil.writeUtf8(buf, value);
+        }
+    }
+
+    // 길이 자리를 비워 두고 UTF-8로 바로 쓴 뒤 실제 길이를 채운다 (byte[] 변환 없음)
+    private static void writeString(ByteBuf buf, String value) {
+        int lengthIndex = buf.writerIndex();
+        buf.writeShort(0);
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        int written = ByteBufUtil.writeUtf8(buf, value);
+        if (written > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String field exceeds " + MAX_STRING_BYTES + " bytes: " + written);
+        }
+        buf.setShort(lengthIndex, written);
+    }
+
+    private static boolean fitsString(String value) {
+        // 문자 수 × 3이 한도 안이면 UTF-8 길이를 세지 않는다
+        return value == null
+                || value.length() * 3L <= MAX_STRING_BYTES
+                || ByteBufUtil.utf8Bytes(value) <= MAX_STRING_BYTES;
+    }
+
+    private static int reasonId(String reasonCode) {
+        for (int i = 0; i < REASON_CODES.length; i++) {
+            if (REASON_CODES[i].equals(reasonCode)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int statusCode(TransactionStatus status) {
+        return switch (status) {
+            case APPROVED -> 1;
+            case DECLINED -> 2;
+            case TIMEOUT -> 3;
+            case BUSY -> 4;
+            case ERROR -> 5;
+        };
+    }
+
+    private static TransactionStatus statusOf(byte code) {
+        return switch (code) {
+            case 1 -> TransactionStatus.APPROVED;
+            case 2 -> TransactionStatus.DECLINED;
+            case 3 -> TransactionStatus.TIMEOUT;
+            case 4 -> TransactionStatus.BUSY;
+            default -> TransactionStatus.ERROR;
+        };
+    }
+}
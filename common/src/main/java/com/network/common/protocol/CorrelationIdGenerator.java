@@ -2,12 +2,74 @@ package com.network.common.protocol;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * correlationId 발급기.
+ * next()는 기존 ASCII 8자리 문자열을, nextId()는 모드에 맞는 primitive long을 반환한다.
+ * BINARY 모드의 id 구조: [NODE_ID(16)][SEQUENCE(48)] — 노드 간 충돌이 없고 사실상 wrap되지 않는다.
+ *
+ * <p>shard 생성자를 쓰면 시퀀스 공간을 shardCount개 구간으로 나눠 자기 구간 안에서만 발급한다.
+ * 응답의 correlationId만으로 {@link #shardOf(CorrelationIdMode, long, int)}가 발급한 shard를 찾는다.
+ */
 public class CorrelationIdGenerator {
 
+    public static final int NODE_ID_BITS = 16;
+    public static final int SEQUENCE_BITS = Long.SIZE - NODE_ID_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
     private final AtomicLong counter = new AtomicLong(0);
+    private final CorrelationIdMode mode;
+    private final long nodePrefix;
+    private final long rangeStart;
+    private final long rangeSize;
+
+    public CorrelationIdGenerator() {
+        this(CorrelationIdMode.ASCII, 0);
+    }
+
+    public CorrelationIdGenerator(CorrelationIdMode mode, int nodeId) {
+        this(mode, nodeId, 0, 1);
+    }
+
+    public CorrelationIdGenerator(CorrelationIdMode mode, int nodeId, int shard, int shardCount) {
+        if (nodeId < 0 || nodeId >= (1 << NODE_ID_BITS)) {
+            throw new IllegalArgumentException("nodeId must be in [0, 65535], got: " + nodeId);
+        }
+        if (shardCount <= 0 || shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("shard must be in [0, " + shardCount + "), got: " + shard);
+        }
+        this.mode = mode;
+        this.nodePrefix = (long) nodeId << SEQUENCE_BITS;
+        this.rangeSize = sequenceSpace(mode) / shardCount;
+        this.rangeStart = shard * rangeSize;
+    }
 
     public String next() {
         long value = counter.incrementAndGet();
         return String.format("%08d", value % 100_000_000);
     }
+
+    public long nextId() {
+        long sequence = rangeStart + counter.incrementAndGet() % rangeSize;
+        if (mode == CorrelationIdMode.ASCII) {
+            return sequence;
+        }
+        return nodePrefix | sequence;
+    }
+
+    /**
+     * shard 생성자로 발급한 id가 속한 shard. 구간 밖의 id는 마지막 shard로 본다.
+     */
+    public static int shardOf(CorrelationIdMode mode, long correlationId, int shardCount) {
+        long sequence = mode == CorrelationIdMode.ASCII ? correlationId : correlationId & SEQUENCE_MASK;
+        long shard = sequence / (sequenceSpace(mode) / shardCount);
+        return (int) Math.min(Math.max(shard, 0), shardCount - 1);
+    }
+
+    private static long sequenceSpace(CorrelationIdMode mode) {
+        return mode == CorrelationIdMode.ASCII ? mode.idSpace() : 1L << SEQUENCE_BITS;
+    }
+
+    public CorrelationIdMode getMode() {
+        return mode;
+    }
 }
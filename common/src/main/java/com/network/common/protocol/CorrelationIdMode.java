@@ -0,0 +1,77 @@
+package com.network.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * CORR_ID(8) 필드 인코딩 방식.
+ * <ul>
+ *   <li>ASCII: 0으로 채운 10진수 8자리 (기존 호환). 100,000,000에서 wrap.</li>
+ *   <li>BINARY: big-endian 64비트 정수. 문자열 변환 없이 long 그대로 쓰고 읽는다.</li>
+ * </ul>
+ * 두 방식 모두 필드 크기가 8바이트라 LEN/프레이밍은 동일하다.
+ */
+public enum CorrelationIdMode {
+
+    ASCII {
+        @Override
+        public void write(ByteBuf buf, long correlationId) {
+            if (correlationId < 0 || correlationId >= ASCII_ID_SPACE) {
+                throw new IllegalArgumentException("ASCII correlationId out of range: " + correlationId);
+            }
+            int index = buf.writerIndex();
+            buf.ensureWritable(FrameCodec.CORR_ID_LENGTH);
+            long value = correlationId;
+            for (int i = FrameCodec.CORR_ID_LENGTH - 1; i >= 0; i--) {
+                buf.setByte(index + i, '0' + (int) (value % 10));
+                value /= 10;
+            }
+            buf.writerIndex(index + FrameCodec.CORR_ID_LENGTH);
+        }
+
+        @Override
+        public long read(ByteBuf buf) {
+            long value = 0;
+            for (int i = 0; i < FrameCodec.CORR_ID_LENGTH; i++) {
+                byte b = buf.readByte();
+                if (b < '0' || b > '9') {
+                    throw new IllegalArgumentException("correlationId is not an 8-digit ASCII number");
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        @Override
+        public long idSpace() {
+            return ASCII_ID_SPACE;
+        }
+    },
+
+    BINARY {
+        @Override
+        public void write(ByteBuf buf, long correlationId) {
+            buf.writeLong(correlationId);
+        }
+
+        @Override
+        public long read(ByteBuf buf) {
+            return buf.readLong();
+        }
+
+        @Override
+        public long idSpace() {
+            return Long.MAX_VALUE;
+        }
+    };
+
+    private static final long ASCII_ID_SPACE = 100_000_000L;
+
+    public abstract void write(ByteBuf buf, long correlationId);
+
+    public abstract long read(ByteBuf buf);
+
+    /**
+     * 이 모드로 표현 가능한 correlationId 개수 (wrap 주기).
+     */
+    public abstract long idSpace();
+}
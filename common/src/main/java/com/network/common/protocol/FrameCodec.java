@@ -1,6 +1,8 @@
 package com.network.common.protocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 
 import java.nio.charset.StandardCharsets;
@@ -9,9 +11,31 @@ import java.nio.charset.StandardCharsets;
  * Frame 인코딩/디코딩.
  * Wire format: [LEN(4)][CORR_ID(8)][MSG_TYPE(2)][BODY(...)]
  * LEN = CORR_ID(8) + MSG_TYPE(2) + BODY 길이 (LEN 필드 자체는 미포함)
+ *
+ * <p>다음 경로를 제공한다.
+ * <ul>
+ *   <li>{@link #encode(Frame)} / {@link #decode(ByteBuf)}: 힙 버퍼 + byte[] 복사. 테스트/호환용.</li>
+ *   <li>{@link #encode(ByteBufAllocator, Frame)} / {@link #decodeRetained(ByteBuf)}: 핫패스용.
+ *       allocator 버퍼에 바로 쓰고, 바디는 retained slice로 복사 없이 넘긴다.</li>
+ *   <li>{@link #encode(ByteBufAllocator, CorrelationIdMode, long, MessageType, byte[])} /
+ *       {@link #decodeRetained(ByteBuf, CorrelationIdMode)}: correlationId를 문자열 없이 long으로 다룬다.</li>
+ * </ul>
+ *
+ * <p>핫패스 참조 카운트 규칙:
+ * <ul>
+ *   <li>encode(alloc, ...)가 반환한 버퍼는 호출자 소유다. writeAndFlush에 넘기면 Netty가 해제하고,
+ *       넘기지 못한 경우 호출자가 release 해야 한다.</li>
+ *   <li>decodeRetained는 입력 버퍼의 참조 카운트를 1 올린 slice를 뷰에 담는다. 입력 버퍼는 호출자가
+ *       (SimpleChannelInboundHandler라면 자동으로) 해제하고, 뷰는 소비한 쪽이 release 해야 한다.</li>
+ * </ul>
  */
 public final class FrameCodec {
 
+    public static final int LENGTH_FIELD_LENGTH = 4;
+    public static final int CORR_ID_LENGTH = 8;
+    public static final int MSG_TYPE_LENGTH = 2;
+    public static final int HEADER_LENGTH = LENGTH_FIELD_LENGTH + CORR_ID_LENGTH + MSG_TYPE_LENGTH;
+
     private FrameCodec() {
     }
 
@@ -33,6 +57,76 @@ public final class FrameCodec {
         return buf;
     }
 
+    /**
+     * allocator 버퍼(풀링 시 다이렉트)에 중간 복사 없이 인코딩한다.
+     * 반환된 버퍼의 소유권은 호출자에게 있다.
+     */
+    public static ByteBuf encode(ByteBufAllocator alloc, Frame frame) {
+        String correlationId = frame.correlationId();
+        if (correlationId.length() != CORR_ID_LENGTH) {
+            throw new IllegalArgumentException(
+                    "correlationId must be exactly 8 ASCII bytes, got: " + correlationId.length());
+        }
+
+        byte[] body = frame.body();
+        int bodyLength = body != null ? body.length : 0;
+
+        ByteBuf buf = alloc.ioBuffer(HEADER_LENGTH + bodyLength);
+        buf.writeInt(CORR_ID_LENGTH + MSG_TYPE_LENGTH + bodyLength);
+        ByteBufUtil.writeAscii(buf, correlationId);
+        buf.writeShort(frame.messageType().code());
+        if (bodyLength > 0) {
+            buf.writeBytes(body);
+        }
+        return buf;
+    }
+
+    /**
+     * correlationId를 모드에 맞게 CORR_ID 필드에 직접 쓴다. 문자열을 만들지 않는다.
+     * 반환된 버퍼의 소유권은 호출자에게 있다.
+     */
+    public static ByteBuf encode(ByteBufAllocator alloc, CorrelationIdMode mode, long correlationId,
+                                 MessageType messageType, byte[] body) {
+        int bodyLength = body != null ? body.length : 0;
+
+        ByteBuf buf = alloc.ioBuffer(HEADER_LENGTH + bodyLength);
+        try {
+            buf.writeInt(CORR_ID_LENGTH + MSG_TYPE_LENGTH + bodyLength);
+            mode.write(buf, correlationId);
+            buf.writeShort(messageType.code());
+            if (bodyLength > 0) {
+                buf.writeBytes(body);
+            }
+            return buf;
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 바디를 ByteBuf로 받는 변형. 수신한 프레임 바디를 다른 연결로 그대로 중계할 때 byte[] 변환을 피한다.
+     * body의 readerIndex와 참조 카운트는 바꾸지 않으며 body 해제는 호출자 책임이다.
+     */
+    public static ByteBuf encode(ByteBufAllocator alloc, CorrelationIdMode mode, long correlationId,
+                                 MessageType messageType, ByteBuf body) {
+        int bodyLength = body != null ? body.readableBytes() : 0;
+
+        ByteBuf buf = alloc.ioBuffer(HEADER_LENGTH + bodyLength);
+        try {
+            buf.writeInt(CORR_ID_LENGTH + MSG_TYPE_LENGTH + bodyLength);
+            mode.write(buf, correlationId);
+            buf.writeShort(messageType.code());
+            if (bodyLength > 0) {
+                buf.writeBytes(body, body.readerIndex(), bodyLength);
+            }
+            return buf;
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
     public static Frame decode(ByteBuf buf) {
         int length = buf.readInt();
 
@@ -54,4 +148,22 @@ public final class FrameCodec {
 
         return new Frame(correlationId, messageType, body);
     }
+
+    /**
+     * 바디를 복사하지 않고 retained slice로 감싼 뷰를 반환한다. correlationId는 ASCII 모드로 해석한다.
+     * 반환된 뷰는 호출자가 release 해야 한다. 입력 버퍼의 해제 책임은 그대로 호출자에게 남는다.
+     */
+    public static FrameView decodeRetained(ByteBuf buf) {
+        return decodeRetained(buf, CorrelationIdMode.ASCII);
+    }
+
+    public static FrameView decodeRetained(ByteBuf buf, CorrelationIdMode mode) {
+        int length = buf.readInt();
+        long correlationId = mode.read(buf);
+        MessageType messageType = MessageType.fromCode(buf.readShort());
+
+        int bodyLength = length - CORR_ID_LENGTH - MSG_TYPE_LENGTH;
+        ByteBuf body = bodyLength > 0 ? buf.readRetainedSlice(bodyLength) : Unpooled.EMPTY_BUFFER;
+        return new FrameView(correlationId, messageType, body);
+    }
 }
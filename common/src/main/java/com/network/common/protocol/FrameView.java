@@ -0,0 +1,84 @@
+package com.network.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * 바디를 복사하지 않고 디코딩한 프레임 뷰.
+ * body는 수신 버퍼의 retained slice이므로, 뷰를 받은 쪽이 사용 후 반드시 release() 해야 한다.
+ * release 이후에는 body에 접근하면 안 된다.
+ * correlationId는 {@link CorrelationIdMode}로 해석한 primitive 값이다.
+ */
+public final class FrameView extends DefaultByteBufHolder {
+
+    private final long correlationId;
+    private final MessageType messageType;
+
+    public FrameView(long correlationId, MessageType messageType, ByteBuf body) {
+        super(body);
+        this.correlationId = correlationId;
+        this.messageType = messageType;
+    }
+
+    public long correlationId() {
+        return correlationId;
+    }
+
+    public MessageType messageType() {
+        return messageType;
+    }
+
+    public ByteBuf body() {
+        return content();
+    }
+
+    @Override
+    public FrameView replace(ByteBuf content) {
+        return new FrameView(correlationId, messageType, content);
+    }
+
+    @Override
+    public FrameView copy() {
+        return (FrameView) super.copy();
+    }
+
+    @Override
+    public FrameView duplicate() {
+        return (FrameView) super.duplicate();
+    }
+
+    @Override
+    public FrameView retainedDuplicate() {
+        return (FrameView) super.retainedDuplicate();
+    }
+
+    @Override
+    public FrameView retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public FrameView retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public FrameView touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public FrameView touch(Object hint) {
+        super.touch(hint);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameView[correlationId=" + correlationId + ", messageType=" + messageType
+                + ", bodyLength=" + content().readableBytes() + "]";
+    }
+}
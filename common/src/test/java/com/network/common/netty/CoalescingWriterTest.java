@@ -0,0 +1,132 @@
+package com.network.common.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalChannel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingWriterTest {
+
+    @Test
+    void framesWrittenBeforeDrain_areFlushedTogether() {
+        EmbeddedChannel ch = new EmbeddedChannel();
+        List<Integer> flushes = new ArrayList<>();
+        CoalescingWriter writer = new CoalescingWriter(ch, 64, 65536, 0, TimeUnit.MICROSECONDS,
+                (frames, bytes) -> flushes.add(frames));
+
+        writer.write(frame("a"));
+        writer.write(frame("bb"));
+        writer.write(frame("ccc"));
+        assertThat(ch.outboundMessages()).isEmpty();
+        assertThat(writer.pendingFrames()).isEqualTo(3);
+        assertThat(writer.queuedBytes()).isEqualTo(6);
+
+        ch.runPendingTasks();
+
+        assertThat(flushes).containsExactly(3);
+        assertThat(writer.pendingFrames()).isZero();
+        assertThat(writer.queuedBytes()).isZero();
+        assertOutbound(ch, "a", "bb", "ccc");
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    void maxFrames_splitsDrainIntoMultipleFlushes() {
+        EmbeddedChannel ch = new EmbeddedChannel();
+        List<Integer> flushes = new ArrayList<>();
+        CoalescingWriter writer = new CoalescingWriter(ch, 2, 65536, 0, TimeUnit.MICROSECONDS,
+                (frames, bytes) -> flushes.add(frames));
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(frame(Integer.toString(i)));
+        }
+        ch.runPendingTasks();
+
+        assertThat(flushes).containsExactly(2, 2, 1);
+        assertOutbound(ch, "0", "1", "2", "3", "4");
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    void maxBytes_flushesWhenReached() {
+        EmbeddedChannel ch = new EmbeddedChannel();
+        List<Long> flushedBytes = new ArrayList<>();
+        CoalescingWriter writer = new CoalescingWriter(ch, 64, 4, 0, TimeUnit.MICROSECONDS,
+                (frames, bytes) -> flushedBytes.add(bytes));
+
+        writer.write(frame("abc"));
+        writer.write(frame("de"));
+        writer.write(frame("f"));
+        ch.runPendingTasks();
+
+        assertThat(flushedBytes).containsExactly(5L, 1L);
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    void writeAfterClose_releasesFrame() {
+        EmbeddedChannel ch = new EmbeddedChannel();
+        CoalescingWriter writer = new CoalescingWriter(ch, 64, 65536, 0, TimeUnit.MICROSECONDS, null);
+        ch.close();
+
+        ByteBuf buf = frame("late");
+        writer.write(buf);
+        ch.runPendingTasks();
+
+        assertThat(buf.refCnt()).isZero();
+        assertThat(writer.pendingFrames()).isZero();
+    }
+
+    @Test
+    void writeAfterEventLoopShutdown_releasesQueuedFrames() throws Exception {
+        DefaultEventLoop loop = new DefaultEventLoop();
+        LocalChannel ch = new LocalChannel();
+        loop.register(ch).sync();
+        CoalescingWriter writer = new CoalescingWriter(ch, 64, 65536, 0, TimeUnit.MICROSECONDS, null);
+        loop.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).sync();
+
+        ByteBuf first = frame("a");
+        ByteBuf second = frame("bb");
+        writer.write(first);
+        writer.write(second);
+
+        assertThat(first.refCnt()).isZero();
+        assertThat(second.refCnt()).isZero();
+        assertThat(writer.pendingFrames()).isZero();
+        assertThat(writer.queuedBytes()).isZero();
+    }
+
+    @Test
+    void invalidLimits_throw() {
+        EmbeddedChannel ch = new EmbeddedChannel();
+
+        assertThatThrownBy(() -> new CoalescingWriter(ch, 0, 1, 0, TimeUnit.MICROSECONDS, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CoalescingWriter(ch, 1, 1, -1, TimeUnit.MICROSECONDS, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        ch.finishAndReleaseAll();
+    }
+
+    private static ByteBuf frame(String content) {
+        return Unpooled.copiedBuffer(content, StandardCharsets.US_ASCII);
+    }
+
+    private static void assertOutbound(EmbeddedChannel ch, String... expected) {
+        for (String content : expected) {
+            ByteBuf out = ch.readOutbound();
+            assertThat(out.toString(StandardCharsets.US_ASCII)).isEqualTo(content);
+            out.release();
+        }
+        assertThat((Object) ch.readOutbound()).isNull();
+    }
+}
@@ -0,0 +1,67 @@
+package com.network.common.netty;
+
+import io.netty.channel.EventLoopGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NettyTransportTest {
+
+    @Test
+    void nio_isAlwaysAvailable() {
+        assertThat(NettyTransport.NIO.isAvailable()).isTrue();
+        assertThat(NettyTransport.NIO.unavailabilityCause()).isNull();
+        assertThat(NettyTransport.NIO.resolve()).isEqualTo(NettyTransport.NIO);
+    }
+
+    @Test
+    void resolve_fallsBackToAnAvailableTransport() {
+        for (NettyTransport requested : NettyTransport.values()) {
+            NettyTransport resolved = requested.resolve();
+
+            assertThat(resolved.isAvailable()).as("resolved from %s", requested).isTrue();
+            if (resolved != requested) {
+                assertThat(requested.unavailabilityCause()).as("cause for %s", requested).isNotNull();
+                assertThat(resolved.ordinal()).isLessThan(requested.ordinal());
+            }
+        }
+    }
+
+    @Test
+    void resolveWithCallback_reportsOnlyActualFallbacks() {
+        for (NettyTransport requested : NettyTransport.values()) {
+            List<NettyTransport> fallbacks = new ArrayList<>();
+            List<Throwable> causes = new ArrayList<>();
+
+            NettyTransport resolved = requested.resolve((fallback, cause) -> {
+                fallbacks.add(fallback);
+                causes.add(cause);
+            });
+
+            assertThat(resolved).isEqualTo(requested.resolve());
+            if (resolved == requested) {
+                assertThat(fallbacks).as("fallback from %s", requested).isEmpty();
+            } else {
+                assertThat(fallbacks).containsExactly(resolved);
+                assertThat(causes).containsExactly(requested.unavailabilityCause());
+            }
+        }
+    }
+
+    @Test
+    void resolvedTransport_createsMatchingEventLoopGroup() {
+        NettyTransport transport = NettyTransport.EPOLL.resolve();
+        EventLoopGroup group = transport.newEventLoopGroup(1);
+        try {
+            assertThat(group.next()).isNotNull();
+            assertThat(transport.socketChannel()).isNotNull();
+            assertThat(transport.serverSocketChannel()).isNotNull();
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+        }
+    }
+}
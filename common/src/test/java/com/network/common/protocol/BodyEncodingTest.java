@@ -0,0 +1,104 @@
+package com.network.common.protocol;
+
+import com.network.common.dto.AuthorizeRequest;
+import com.network.common.dto.TransactionStatus;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodyEncodingTest {
+
+    @Test
+    void binaryResponse_tableReasonCode_isThreeBytes() {
+        ByteBuf body = Unpooled.buffer();
+        BodyEncoding.BINARY.writeResponse(body, TransactionStatus.DECLINED, "INSUFFICIENT_FUNDS");
+
+        assertThat(body.readableBytes()).isEqualTo(3);
+        assertThat(BodyEncoding.of(body)).isEqualTo(BodyEncoding.BINARY);
+        assertThat(BodyEncoding.BINARY.readStatus(body)).isEqualTo(TransactionStatus.DECLINED);
+        assertThat(BodyEncoding.BINARY.readReasonCode(body)).isEqualTo("INSUFFICIENT_FUNDS");
+        assertThat(body.readerIndex()).isZero();
+        body.release();
+    }
+
+    @Test
+    void binaryResponse_unknownReasonCode_isCarriedInline() {
+        ByteBuf body = Unpooled.buffer();
+        BodyEncoding.BINARY.writeResponse(body, TransactionStatus.ERROR, "한도_초과");
+
+        assertThat(BodyEncoding.BINARY.readStatus(body)).isEqualTo(TransactionStatus.ERROR);
+        assertThat(BodyEncoding.BINARY.readReasonCode(body)).isEqualTo("한도_초과");
+        body.release();
+    }
+
+    @Test
+    void binaryResponse_truncatedReasonString_readsUnknown() {
+        ByteBuf body = Unpooled.buffer();
+        BodyEncoding.BINARY.writeResponse(body, TransactionStatus.ERROR, "한도_초과");
+        // LEN은 그대로 두고 문자열 끝을 자른다
+        ByteBuf truncated = body.retainedSlice(0, body.readableBytes() - 2);
+
+        assertThat(BodyEncoding.BINARY.readStatus(truncated)).isEqualTo(TransactionStatus.ERROR);
+        assertThat(BodyEncoding.BINARY.readReasonCode(truncated)).isEqualTo("UNKNOWN");
+        truncated.release();
+        body.release();
+    }
+
+    @Test
+    void textResponse_keepsLegacyFormat() {
+        ByteBuf body = Unpooled.buffer();
+        BodyEncoding.TEXT.writeResponse(body, TransactionStatus.APPROVED, "OK");
+
+        assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("APPROVED|OK");
+        assertThat(BodyEncoding.of(body)).isEqualTo(BodyEncoding.TEXT);
+        assertThat(BodyEncoding.TEXT.readStatus(body)).isEqualTo(TransactionStatus.APPROVED);
+        assertThat(BodyEncoding.TEXT.readReasonCode(body)).isEqualTo("OK");
+        body.release();
+    }
+
+    @Test
+    void binaryRequest_layout() {
+        AuthorizeRequest request = new AuthorizeRequest("M001", 15_000L, "KRW", "key-1", null, "p");
+        ByteBuf body = Unpooled.buffer();
+        BodyEncoding.BINARY.writeRequest(body, request);
+
+        assertThat(body.readByte()).isEqualTo(BodyEncoding.BINARY_V1);
+        assertThat(body.readLong()).isEqualTo(15_000L);
+        assertThat(readString(body)).isEqualTo("M001");
+        assertThat(readString(body)).isEqualTo("KRW");
+        assertThat(readString(body)).isEmpty();
+        assertThat(readString(body)).isEqualTo("p");
+        assertThat(body.isReadable()).isFalse();
+        body.release();
+    }
+
+    @Test
+    void textRequest_matchesPipeDelimitedFormat() {
+        AuthorizeRequest request = new AuthorizeRequest("M001", 15_000L, "KRW", "key-1", null, "p");
+        ByteBuf body = Unpooled.buffer();
+        BodyEncoding.TEXT.writeRequest(body, request);
+
+        assertThat(body.toString(StandardCharsets.UTF_8)).isEqualTo("M001|15000|KRW||p");
+        body.release();
+    }
+
+    @Test
+    void binaryRequest_oversizedField_isRejectedBeforeEncoding() {
+        String payload = "x".repeat(BodyEncoding.MAX_STRING_BYTES + 1);
+        AuthorizeRequest oversized = new AuthorizeRequest("M001", 15_000L, "KRW", null, null, payload);
+        AuthorizeRequest atLimit = new AuthorizeRequest("M001", 15_000L, "KRW", null, null, payload.substring(1));
+
+        assertThat(BodyEncoding.BINARY.canEncode(oversized)).isFalse();
+        assertThat(BodyEncoding.BINARY.canEncode(atLimit)).isTrue();
+        assertThat(BodyEncoding.TEXT.canEncode(oversized)).isTrue();
+    }
+
+    private static String readString(ByteBuf body) {
+        int length = body.readUnsignedShort();
+        return body.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+}
@@ -9,6 +9,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class CorrelationIdGeneratorTest {
 
@@ -50,4 +51,74 @@ class CorrelationIdGeneratorTest {
 
         assertThat(ids).hasSize(threadCount * idsPerThread);
     }
+
+    @Test
+    void nextId_asciiMode_matchesStringSequence() {
+        CorrelationIdGenerator gen = new CorrelationIdGenerator(CorrelationIdMode.ASCII, 0);
+        assertThat(gen.nextId()).isEqualTo(1L);
+        assertThat(gen.nextId()).isEqualTo(2L);
+        assertThat(gen.next()).isEqualTo("00000003");
+    }
+
+    @Test
+    void nextId_binaryMode_prefixesNodeId() {
+        CorrelationIdGenerator gen = new CorrelationIdGenerator(CorrelationIdMode.BINARY, 3);
+
+        long id = gen.nextId();
+
+        assertThat(id >>> CorrelationIdGenerator.SEQUENCE_BITS).isEqualTo(3L);
+        assertThat(id & ((1L << CorrelationIdGenerator.SEQUENCE_BITS) - 1)).isEqualTo(1L);
+    }
+
+    @Test
+    void constructor_invalidNodeId_throws() {
+        assertThatThrownBy(() -> new CorrelationIdGenerator(CorrelationIdMode.BINARY, 1 << 16))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CorrelationIdGenerator(CorrelationIdMode.BINARY, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shardRanges_areDisjointAndRoutable() {
+        int shardCount = 3;
+        for (CorrelationIdMode mode : CorrelationIdMode.values()) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                CorrelationIdGenerator gen = new CorrelationIdGenerator(mode, 7, shard, shardCount);
+                for (int i = 0; i < 100; i++) {
+                    assertThat(CorrelationIdGenerator.shardOf(mode, gen.nextId(), shardCount)).isEqualTo(shard);
+                }
+            }
+        }
+    }
+
+    @Test
+    void constructor_invalidShard_throws() {
+        assertThatThrownBy(() -> new CorrelationIdGenerator(CorrelationIdMode.BINARY, 0, 2, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CorrelationIdGenerator(CorrelationIdMode.BINARY, 0, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nextId_binaryMode_threadSafe_noDuplicates() throws InterruptedException {
+        CorrelationIdGenerator gen = new CorrelationIdGenerator(CorrelationIdMode.BINARY, 1);
+        int threadCount = 10;
+        int idsPerThread = 1000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threadCount)) {
+            for (int t = 0; t < threadCount; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(gen.nextId());
+                    }
+                    latch.countDown();
+                });
+            }
+            latch.await();
+        }
+
+        assertThat(ids).hasSize(threadCount * idsPerThread);
+    }
 }
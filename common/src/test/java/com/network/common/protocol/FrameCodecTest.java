@@ -1,6 +1,11 @@
 package com.network.common.protocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
@@ -102,4 +107,186 @@ class FrameCodecTest {
         buf1.release();
         buf2.release();
     }
+
+    @Test
+    void encodePooled_producesSameBytesAsUnpooled() {
+        PooledByteBufAllocator alloc = newUncachedAllocator();
+        Frame frame = new Frame("00000020", MessageType.AUTH_REQ, "same-bytes".getBytes(StandardCharsets.UTF_8));
+
+        ByteBuf heap = FrameCodec.encode(frame);
+        ByteBuf pooled = FrameCodec.encode(alloc, frame);
+
+        assertThat(pooled.isDirect()).isTrue();
+        assertThat(ByteBufUtil.equals(heap, pooled)).isTrue();
+
+        heap.release();
+        pooled.release();
+        assertThat(activeDirectAllocations(alloc)).isZero();
+    }
+
+    @Test
+    void encodePooled_invalidCorrelationIdLength_throwsWithoutAllocating() {
+        PooledByteBufAllocator alloc = newUncachedAllocator();
+        Frame frame = new Frame("short", MessageType.AUTH_REQ, new byte[0]);
+
+        assertThatThrownBy(() -> FrameCodec.encode(alloc, frame))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("8 ASCII bytes");
+        assertThat(activeDirectAllocations(alloc)).isZero();
+    }
+
+    @Test
+    void decodeRetained_bodySharesSourceMemory() {
+        ByteBuf encoded = FrameCodec.encode(
+                new Frame("00000021", MessageType.AUTH_RES, "APPROVED|OK".getBytes(StandardCharsets.UTF_8)));
+
+        FrameView view = FrameCodec.decodeRetained(encoded);
+        encoded.setByte(FrameCodec.HEADER_LENGTH, 'X');
+
+        assertThat(view.correlationId()).isEqualTo(21L);
+        assertThat(view.messageType()).isEqualTo(MessageType.AUTH_RES);
+        assertThat(view.body().toString(StandardCharsets.UTF_8)).isEqualTo("XPPROVED|OK");
+
+        view.release();
+        encoded.release();
+    }
+
+    @Test
+    void decodeRetained_viewKeepsSourceAliveUntilReleased() {
+        PooledByteBufAllocator alloc = newUncachedAllocator();
+        ByteBuf encoded = FrameCodec.encode(alloc,
+                new Frame("00000022", MessageType.AUTH_RES, "APPROVED|OK".getBytes(StandardCharsets.UTF_8)));
+
+        FrameView view = FrameCodec.decodeRetained(encoded);
+        assertThat(encoded.refCnt()).isEqualTo(2);
+
+        // ResponseHandler와 같은 순서: 인바운드 버퍼가 먼저 해제되고 뷰는 소비 후 해제
+        encoded.release();
+        assertThat(view.refCnt()).isEqualTo(1);
+        assertThat(view.body().toString(StandardCharsets.UTF_8)).isEqualTo("APPROVED|OK");
+
+        view.release();
+        assertThat(encoded.refCnt()).isZero();
+        assertThat(activeDirectAllocations(alloc)).isZero();
+    }
+
+    @Test
+    void decodeRetained_emptyBody_needsNoExtraRelease() {
+        ByteBuf encoded = FrameCodec.encode(new Frame("00000023", MessageType.CANCEL_RES, new byte[0]));
+
+        FrameView view = FrameCodec.decodeRetained(encoded);
+
+        assertThat(view.body().isReadable()).isFalse();
+        assertThat(encoded.refCnt()).isEqualTo(1);
+
+        view.release();
+        encoded.release();
+        assertThat(encoded.refCnt()).isZero();
+    }
+
+    @Test
+    void decodeRetained_multipleFramesInOneBuffer() {
+        PooledByteBufAllocator alloc = newUncachedAllocator();
+        ByteBuf buf1 = FrameCodec.encode(alloc, new Frame("00000030", MessageType.AUTH_RES, "a".getBytes(StandardCharsets.UTF_8)));
+        ByteBuf buf2 = FrameCodec.encode(alloc, new Frame("00000031", MessageType.AUTH_RES, "bb".getBytes(StandardCharsets.UTF_8)));
+        ByteBuf combined = Unpooled.wrappedBuffer(buf1, buf2);
+
+        FrameView view1 = FrameCodec.decodeRetained(combined);
+        FrameView view2 = FrameCodec.decodeRetained(combined);
+        combined.release();
+
+        assertThat(view1.correlationId()).isEqualTo(30L);
+        assertThat(view2.correlationId()).isEqualTo(31L);
+        assertThat(view2.body().readableBytes()).isEqualTo(2);
+
+        view1.release();
+        view2.release();
+        assertThat(buf1.refCnt()).isZero();
+        assertThat(buf2.refCnt()).isZero();
+        assertThat(activeDirectAllocations(alloc)).isZero();
+    }
+
+    @Test
+    void encodeLongId_asciiMode_matchesStringFrameBytes() {
+        byte[] body = "body".getBytes(StandardCharsets.UTF_8);
+        ByteBuf fromString = FrameCodec.encode(new Frame("00000042", MessageType.AUTH_REQ, body));
+        ByteBuf fromLong = FrameCodec.encode(UnpooledByteBufAllocator.DEFAULT, CorrelationIdMode.ASCII, 42L,
+                MessageType.AUTH_REQ, body);
+
+        assertThat(ByteBufUtil.equals(fromString, fromLong)).isTrue();
+
+        fromString.release();
+        fromLong.release();
+    }
+
+    @Test
+    void encodeAndDecodeRetained_binaryMode_roundTrip() {
+        PooledByteBufAllocator alloc = newUncachedAllocator();
+        long correlationId = (7L << CorrelationIdGenerator.SEQUENCE_BITS) | 123_456_789_012L;
+
+        ByteBuf encoded = FrameCodec.encode(alloc, CorrelationIdMode.BINARY, correlationId,
+                MessageType.INQUIRY_REQ, "q".getBytes(StandardCharsets.UTF_8));
+        assertThat(encoded.getInt(0)).isEqualTo(8 + 2 + 1);
+
+        FrameView view = FrameCodec.decodeRetained(encoded, CorrelationIdMode.BINARY);
+        encoded.release();
+
+        assertThat(view.correlationId()).isEqualTo(correlationId);
+        assertThat(view.messageType()).isEqualTo(MessageType.INQUIRY_REQ);
+        assertThat(view.body().toString(StandardCharsets.UTF_8)).isEqualTo("q");
+
+        view.release();
+        assertThat(activeDirectAllocations(alloc)).isZero();
+    }
+
+    @Test
+    void encodeByteBufBody_matchesByteArrayBody_andLeavesSourceUntouched() {
+        PooledByteBufAllocator alloc = newUncachedAllocator();
+        byte[] bytes = "APPROVED|OK".getBytes(StandardCharsets.UTF_8);
+        ByteBuf source = Unpooled.wrappedBuffer(bytes);
+
+        ByteBuf fromBuf = FrameCodec.encode(alloc, CorrelationIdMode.BINARY, 99L, MessageType.AUTH_RES, source);
+        ByteBuf fromArray = FrameCodec.encode(alloc, CorrelationIdMode.BINARY, 99L, MessageType.AUTH_RES, bytes);
+
+        assertThat(ByteBufUtil.equals(fromBuf, fromArray)).isTrue();
+        assertThat(source.readerIndex()).isZero();
+        assertThat(source.refCnt()).isEqualTo(1);
+
+        fromBuf.release();
+        fromArray.release();
+        source.release();
+        assertThat(activeDirectAllocations(alloc)).isZero();
+    }
+
+    @Test
+    void encodeLongId_asciiMode_outOfRange_throwsWithoutLeaking() {
+        PooledByteBufAllocator alloc = newUncachedAllocator();
+
+        assertThatThrownBy(() -> FrameCodec.encode(alloc, CorrelationIdMode.ASCII, 100_000_000L,
+                MessageType.AUTH_REQ, new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("out of range");
+        assertThat(activeDirectAllocations(alloc)).isZero();
+    }
+
+    @Test
+    void decodeRetained_asciiMode_nonDigitCorrelationId_throws() {
+        ByteBuf encoded = FrameCodec.encode(new Frame("ABCDEFGH", MessageType.AUTH_RES, new byte[0]));
+
+        assertThatThrownBy(() -> FrameCodec.decodeRetained(encoded, CorrelationIdMode.ASCII))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        encoded.release();
+    }
+
+    // 스레드 캐시를 끄면 release된 버퍼가 즉시 아레나로 반환되어 활성 할당 수로 누수를 확인할 수 있다.
+    private static PooledByteBufAllocator newUncachedAllocator() {
+        return new PooledByteBufAllocator(true, 0, 1, 8192, 9, 0, 0, false);
+    }
+
+    private static long activeDirectAllocations(PooledByteBufAllocator alloc) {
+        return alloc.metric().directArenas().stream()
+                .mapToLong(PoolArenaMetric::numActiveAllocations)
+                .sum();
+    }
 }
@@ -8,6 +8,9 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -15,11 +18,16 @@ import java.util.concurrent.ThreadLocalRandom;
 public class GatewayClient {
 
     private final WebClient webClient;
+    private final WebClient actuatorClient;
 
     public GatewayClient(LoadGenProperties properties) {
         this.webClient = WebClient.builder()
                 .baseUrl(properties.getGatewayUrl())
                 .build();
+        String actuatorUrl = properties.getActuatorUrl();
+        this.actuatorClient = actuatorUrl == null || actuatorUrl.isBlank()
+                ? webClient
+                : WebClient.builder().baseUrl(actuatorUrl).build();
     }
 
     public Mono<AuthorizeResponse> authorize() {
@@ -44,4 +52,33 @@ public class GatewayClient {
                                 e.getClass().getSimpleName(),
                                 0, null)));
     }
+
+    /**
+     * 게이트웨이 /actuator/metrics/{name}의 measurement(statistic → value)를 조회한다.
+     * 조회 실패한 메트릭은 결과에서 빠진다.
+     */
+    public Map<String, Map<String, Double>> fetchGatewayMetrics(List<String> names) {
+        Map<String, Map<String, Double>> result = new LinkedHashMap<>();
+        for (String name : names) {
+            MetricResponse metric = actuatorClient.get()
+                    .uri("/actuator/metrics/{name}", name)
+                    .retrieve()
+                    .bodyToMono(MetricResponse.class)
+                    .timeout(Duration.ofSeconds(5))
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+            if (metric != null && metric.measurements() != null) {
+                Map<String, Double> values = new LinkedHashMap<>();
+                metric.measurements().forEach(m -> values.put(m.statistic(), m.value()));
+                result.put(name, values);
+            }
+        }
+        return result;
+    }
+
+    public record MetricResponse(String name, List<Measurement> measurements) {
+    }
+
+    public record Measurement(String statistic, double value) {
+    }
 }
@@ -4,13 +4,22 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Getter
 @Setter
 @ConfigurationProperties(prefix = "loadgen")
 public class LoadGenProperties {
 
     private String gatewayUrl = "http://localhost:8080";
+    // 비어 있으면 gatewayUrl 사용 (Netty ingress 포트로 부하를 줄 때는 actuator가 있는 MVC 포트를 지정)
+    private String actuatorUrl;
     private int concurrentUsers = 100;
     private int durationSeconds = 30;
     private int rampUpSeconds = 5;
+    private int rampMaxUsers = 6400;
+    private int rampStepSeconds = 10;
+    private double rampMaxFailureRate = 0.01;
+    private List<String> gatewayMetrics = new ArrayList<>();
 }
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.HdrHistogram.Histogram;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -59,6 +60,66 @@ public class ResultReporter {
         log.info(sb.toString());
     }
 
+    /**
+     * 시나리오 전후 게이트웨이 메트릭 차이를 출력한다. 누적값(COUNT, TOTAL_TIME)은 구간 증가분, 나머지는 종료 시점 값.
+     * vthread.pinned와 vthread.scheduler.parallelism이 있으면 pinning으로 잃은 carrier 비율도 계산한다.
+     * process.syscalls가 있으면 요청당 read/write 계열 syscall 수도 계산한다.
+     */
+    public void printGatewayMetrics(Map<String, Map<String, Double>> before, Map<String, Map<String, Double>> after,
+                                    Duration elapsed) {
+        if (after.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n========== Gateway Metrics (").append(elapsed.toSeconds()).append("s) ==========\n");
+        for (Map.Entry<String, Map<String, Double>> metric : after.entrySet()) {
+            Map<String, Double> prev = before.getOrDefault(metric.getKey(), Map.of());
+            for (Map.Entry<String, Double> m : metric.getValue().entrySet()) {
+                double value = m.getValue();
+                if (m.getKey().equals("COUNT") || m.getKey().equals("TOTAL_TIME")) {
+                    value -= prev.getOrDefault(m.getKey(), 0.0);
+                }
+                sb.append(String.format("  %-32s %-10s : %.3f\n", metric.getKey(), m.getKey(), value));
+            }
+        }
+
+        Map<String, Double> pinned = after.get("vthread.pinned");
+        Map<String, Double> parallelism = after.get("vthread.scheduler.parallelism");
+        if (pinned != null && parallelism != null && parallelism.getOrDefault("VALUE", 0.0) > 0) {
+            double pinnedSec = pinned.getOrDefault("TOTAL_TIME", 0.0)
+                    - before.getOrDefault("vthread.pinned", Map.of()).getOrDefault("TOTAL_TIME", 0.0);
+            double carrierSec = elapsed.toNanos() / 1e9 * parallelism.get("VALUE");
+            sb.append(String.format("\nPinned Carrier Share : %.2f%%\n", pinnedSec / carrierSec * 100));
+        }
+
+        // transport(nio/epoll/io_uring)별로 같은 부하를 돌려 p99와 함께 비교한다
+        Map<String, Double> syscalls = after.get("process.syscalls");
+        long total = totalRequests.get();
+        if (syscalls != null && total > 0) {
+            double syscallCount = syscalls.getOrDefault("COUNT", 0.0)
+                    - before.getOrDefault("process.syscalls", Map.of()).getOrDefault("COUNT", 0.0);
+            sb.append(String.format("\nSyscalls / Request   : %.2f\n", syscallCount / total));
+        }
+        sb.append("========================================\n");
+
+        log.info(sb.toString());
+    }
+
+    /**
+     * (TIMEOUT + ERROR + BUSY) / 전체 요청 비율. 요청이 없으면 0.
+     */
+    public synchronized double failureRate() {
+        long total = totalRequests.get();
+        if (total == 0) {
+            return 0;
+        }
+        long timeouts = statusCounts.getOrDefault(TransactionStatus.TIMEOUT, new AtomicLong(0)).get();
+        long errors = statusCounts.getOrDefault(TransactionStatus.ERROR, new AtomicLong(0)).get();
+        long busy = statusCounts.getOrDefault(TransactionStatus.BUSY, new AtomicLong(0)).get();
+        return (double) (timeouts + errors + busy) / total;
+    }
+
     public synchronized void reset() {
         latencyHistogram.reset();
         statusCounts.clear();
@@ -13,6 +13,7 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
 @Slf4j
@@ -39,15 +40,24 @@ public class LoadRunner implements CommandLineRunner {
                 scenario, properties.getConcurrentUsers(), properties.getDurationSeconds());
 
         reporter.reset();
+        Map<String, Map<String, Double>> metricsBefore = client.fetchGatewayMetrics(properties.getGatewayMetrics());
+        long startNanos = System.nanoTime();
 
         switch (scenario) {
             case BURST -> runBurst();
             case SLOWDOWN -> runSteady();
             case SESSION_DROP -> runSteady();
             case OUT_OF_ORDER -> runSteady();
+            case RAMP -> {
+                runRamp();
+                return;
+            }
         }
 
         reporter.printReport();
+        reporter.printGatewayMetrics(metricsBefore,
+                client.fetchGatewayMetrics(properties.getGatewayMetrics()),
+                Duration.ofNanos(System.nanoTime() - startNanos));
     }
 
     private void runBurst() throws InterruptedException {
@@ -93,6 +103,40 @@ public class LoadRunner implements CommandLineRunner {
         latch.await();
     }
 
+    /**
+     * 동시 사용자 수를 단계별로 2배씩 늘리며 (closed-loop), 실패율(TIMEOUT+ERROR+BUSY)이
+     * 임계치 이하인 최대 동시성을 찾는다. ingress 방식 변경 전후의 최대 지속 가능 동시성 비교용.
+     */
+    private void runRamp() {
+        int maxUsers = properties.getRampMaxUsers();
+        int stepSec = properties.getRampStepSeconds();
+        double maxFailureRate = properties.getRampMaxFailureRate();
+        int sustainedUsers = 0;
+
+        for (int users = properties.getConcurrentUsers(); users <= maxUsers; users *= 2) {
+            log.info("RAMP step: {} concurrent users for {}s", users, stepSec);
+            reporter.reset();
+
+            Flux.range(0, users)
+                    .flatMap(i -> Mono.defer(this::sendRequest)
+                            .repeat()
+                            .take(Duration.ofSeconds(stepSec)), users)
+                    .then()
+                    .block();
+
+            reporter.printReport();
+            double failureRate = reporter.failureRate();
+            if (failureRate > maxFailureRate) {
+                log.info("RAMP stopped at {} users: failure rate {}% > {}%",
+                        users, String.format("%.2f", failureRate * 100), String.format("%.2f", maxFailureRate * 100));
+                break;
+            }
+            sustainedUsers = users;
+        }
+
+        log.info("RAMP result: max sustainable concurrency = {} users", sustainedUsers);
+    }
+
     private Mono<AuthorizeResponse> sendRequest() {
         long start = System.currentTimeMillis();
         return client.authorize()
@@ -1,8 +1,26 @@
 package com.network.loadgen.runner;
 
+/**
+ * 부하 시나리오. 첫 번째 인자로 고른다 (기본 BURST). 끝나면 전후 게이트웨이 메트릭 차이(gateway-metrics)를 출력한다.
+ */
 public enum ScenarioType {
+    /**
+     * concurrent-users × 20으로 10초간 몰아친다.
+     * 세션 스케일링 비교: gateway.upstream.scaling.enabled=false / true(max-sessions 8)로 각각 돌려
+     * tx.busy.reject.count와 session.pool.size를 비교한다.
+     * pinning 리포트: 게이트웨이를 virtual 프로필로 띄우고 돌리면 vthread.pinned 차이와 Pinned Carrier Share가 출력된다.
+     * transport 비교: gateway.transport.type과 card-sim transport.type을 NIO / EPOLL / IO_URING으로 바꿔 가며
+     * 리눅스에서 같은 부하로 돌려 p99 Latency와 요청당 syscall 수를 비교한다.
+     */
     BURST,
     SLOWDOWN,
     SESSION_DROP,
-    OUT_OF_ORDER
+    OUT_OF_ORDER,
+    /**
+     * concurrent-users부터 ramp-max-users까지 동시 사용자를 단계마다 두 배로 늘리며,
+     * 실패율(TIMEOUT+ERROR+BUSY)이 ramp-max-failure-rate 이하인 마지막 단계를 최대 동시성으로 보고한다.
+     * async ingress 비교: 동기 IngressController 빌드와 현재 빌드를 같은 card-sim 설정으로 각각 돌려
+     * "max sustainable concurrency"를 비교한다. card-sim slow-connection을 켜면 차이가 더 분명하다.
+     */
+    RAMP
 }